@@ -0,0 +1,159 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.ExpiryKind;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.processors.ExpiryIndex;
+import com.github.overz.processors.PaginationCleaner;
+import com.github.overz.serdes.ConsumerSetSerdes;
+import com.github.overz.serdes.PageDataSerdes;
+import com.github.overz.serdes.PageMetadataSerdes;
+import com.github.overz.serdes.PaginationSummarySerdes;
+import com.github.overz.serdes.SerdeFormat;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// The cleanup an ack or an expiry sweep runs, against the RocksDB stores of a TopologyTestDriver. Every invocation
+// fills the stores with fresh paginations first, the tombstones of the previous ones stay in RocksDB like they do
+// between compactions.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CleanupBenchmark {
+	private static final String PAGE_STORE = "pages";
+	private static final String METADATA_STORE = "metadata";
+	private static final String SUMMARY_STORE = "summary";
+	private static final String CONSUMERS_STORE = "consumers";
+	private static final String ACK_STORE = "acks";
+	private static final String EXPIRY_STORE = "expiry";
+
+	// paginations removed by one cleanup, 1 for an ack and up to the sweep size for a sweep
+	@Param({ "1", "50" })
+	private int paginations;
+
+	@Param({ "10", "100", "1000" })
+	private int pages;
+
+	private Path stateDir;
+	private TopologyTestDriver driver;
+	private KeyValueStore<String, PageData> pageStore;
+	private KeyValueStore<String, PageMetadata> metadataStore;
+	private KeyValueStore<String, PaginationSummary> summaryStore;
+	private KeyValueStore<String, ConsumerSet> consumersStore;
+	private KeyValueStore<String, ConsumerSet> ackStore;
+	private ExpiryIndex expiryIndex;
+	private PaginationCleaner cleaner;
+	private byte[] value;
+	private List<String> paginationIds;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		stateDir = Files.createTempDirectory("cleanup-benchmark");
+		final var config = new Properties();
+		config.put(StreamsConfig.APPLICATION_ID_CONFIG, "cleanup-benchmark");
+		config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+		config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+
+		final var topology = new Topology();
+		topology.addSource("source", Fixtures.TOPIC);
+		topology.addProcessor("stores", () -> (Processor<Object, Object, Void, Void>) record -> {
+		}, "source");
+		topology.addStateStore(store(PAGE_STORE, PageDataSerdes.of(SerdeFormat.RAW)), "stores");
+		topology.addStateStore(store(METADATA_STORE, PageMetadataSerdes.of(SerdeFormat.KRYO)), "stores");
+		topology.addStateStore(store(SUMMARY_STORE, PaginationSummarySerdes.of(SerdeFormat.KRYO)), "stores");
+		topology.addStateStore(store(CONSUMERS_STORE, ConsumerSetSerdes.of(SerdeFormat.KRYO)), "stores");
+		topology.addStateStore(store(ACK_STORE, ConsumerSetSerdes.of(SerdeFormat.KRYO)), "stores");
+		topology.addStateStore(store(EXPIRY_STORE, Serdes.String()), "stores");
+		driver = new TopologyTestDriver(topology, config);
+
+		pageStore = driver.getKeyValueStore(PAGE_STORE);
+		metadataStore = driver.getKeyValueStore(METADATA_STORE);
+		summaryStore = driver.getKeyValueStore(SUMMARY_STORE);
+		consumersStore = driver.getKeyValueStore(CONSUMERS_STORE);
+		ackStore = driver.getKeyValueStore(ACK_STORE);
+		final KeyValueStore<String, String> expiryStore = driver.getKeyValueStore(EXPIRY_STORE);
+		expiryIndex = new ExpiryIndex(expiryStore, Fixtures.POLICY);
+		cleaner = new PaginationCleaner(pageStore, metadataStore, summaryStore, consumersStore, ackStore, expiryIndex);
+		value = Fixtures.value(1024);
+	}
+
+	@Setup(Level.Invocation)
+	public void fill() {
+		paginationIds = new ArrayList<>(paginations);
+		final var consumers = ConsumerSet.empty().with(0).with(1);
+		for (int i = 0; i < paginations; i++) {
+			final var paginationId = Fixtures.paginationId();
+			final var pageBatch = new ArrayList<KeyValue<String, PageData>>(pages);
+			final var metadataBatch = new ArrayList<KeyValue<String, PageMetadata>>(pages);
+			for (int page = 1; page <= pages; page++) {
+				final var headers = Fixtures.headers(paginationId, page, pages, value.length);
+				pageBatch.add(KeyValue.pair(
+					headers.compositeKey(), new PageData(paginationId.getBytes(StandardCharsets.UTF_8), value)
+				));
+				metadataBatch.add(KeyValue.pair(headers.compositeKey(), Fixtures.metadata(headers)));
+			}
+			pageStore.putAll(pageBatch);
+			metadataStore.putAll(metadataBatch);
+			summaryStore.put(paginationId, PaginationSummary.newSummary(Fixtures.headers(paginationId, 1, pages, value.length)));
+			consumersStore.put(paginationId, consumers);
+			ackStore.put(paginationId, consumers);
+			expiryIndex.schedule(ExpiryKind.ACKED, paginationId, System.currentTimeMillis());
+			paginationIds.add(paginationId);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		driver.close();
+		Utils.delete(stateDir.toFile());
+	}
+
+	@Benchmark
+	public int cleanup() {
+		return cleaner.cleanupAll(paginationIds);
+	}
+
+	private static <V> StoreBuilder<KeyValueStore<String, V>> store(
+		final String name,
+		final Serde<V> serde
+	) {
+		return Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(name), Serdes.String(), serde)
+			.withLoggingDisabled();
+	}
+}
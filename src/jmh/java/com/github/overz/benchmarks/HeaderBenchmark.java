@@ -0,0 +1,66 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.HeaderCodec;
+import com.github.overz.HeaderKey;
+import com.github.overz.dtos.MessageHeaders;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Header parsing done for every page: the producer headers once on extraction, the packed header by every
+// processor after it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderBenchmark {
+	private MessageHeaders headers;
+	private RecordHeaders packed;
+	private RecordHeaders unpacked;
+
+	@Setup
+	public void setup() {
+		headers = Fixtures.headers(Fixtures.paginationId(), 7, 10, 65536);
+		packed = Fixtures.packed(headers);
+		unpacked = Fixtures.unpacked(headers);
+	}
+
+	@Benchmark
+	public MessageHeaders fromPackedHeaders() {
+		return MessageHeaders.fromHeaders(packed);
+	}
+
+	@Benchmark
+	public MessageHeaders fromUnpackedHeaders() {
+		return MessageHeaders.fromHeaders(unpacked);
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return HeaderCodec.encode(headers);
+	}
+
+	// the HeaderKey lookups ExtractDataProcessor does on the producer headers
+	@Benchmark
+	public void producerHeaders(final Blackhole blackhole) {
+		blackhole.consume(HeaderKey.string(unpacked, HeaderKey.ORIGIN));
+		blackhole.consume(HeaderKey.string(unpacked, HeaderKey.PAGINATION_ID));
+		blackhole.consume(HeaderKey.string(unpacked, HeaderKey.MESSAGE_ID));
+		blackhole.consume(HeaderKey.integer(unpacked, HeaderKey.PAGE_NUMBER));
+		blackhole.consume(HeaderKey.integer(unpacked, HeaderKey.TOTAL_ELEMENTS));
+		blackhole.consume(HeaderKey.integer(unpacked, HeaderKey.PAGE_SIZE));
+	}
+}
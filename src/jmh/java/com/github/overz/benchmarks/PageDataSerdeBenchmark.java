@@ -0,0 +1,78 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.dtos.PageData;
+import com.github.overz.serdes.PageDataSerdes;
+import com.github.overz.serdes.SerdeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Page serde of every format, pages are written once to the repartition topic and read back by the page store
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageDataSerdeBenchmark {
+	@Param({ "JSON", "KRYO", "KRYO_ZSTD", "RAW" })
+	private SerdeFormat format;
+
+	@Param({ "1024", "65536", "524288" })
+	private int pageSize;
+
+	private PageDataSerdes serdes;
+	private PageData page;
+	private PageData combined;
+	private byte[] serialized;
+	private byte[] serializedCombined;
+
+	@Setup
+	public void setup() {
+		serdes = PageDataSerdes.of(format);
+		final var paginationId = Fixtures.paginationId();
+		final var value = Fixtures.value(pageSize);
+		page = new PageData(paginationId.getBytes(StandardCharsets.UTF_8), value);
+		combined = page.withMetadata(Fixtures.metadata(Fixtures.headers(paginationId, 1, 10, value.length)));
+		serialized = serdes.serializer().serialize(Fixtures.TOPIC, page);
+		serializedCombined = serdes.serializer().serialize(Fixtures.TOPIC, combined);
+	}
+
+	@TearDown
+	public void tearDown() {
+		serdes.close();
+	}
+
+	@Benchmark
+	public byte[] serialize() {
+		return serdes.serializer().serialize(Fixtures.TOPIC, page);
+	}
+
+	@Benchmark
+	public PageData deserialize() {
+		return serdes.deserializer().deserialize(Fixtures.TOPIC, serialized);
+	}
+
+	// StoreLayout.COMBINED
+	@Benchmark
+	public byte[] serializeWithMetadata() {
+		return serdes.serializer().serialize(Fixtures.TOPIC, combined);
+	}
+
+	@Benchmark
+	public PageData deserializeWithMetadata() {
+		return serdes.deserializer().deserialize(Fixtures.TOPIC, serializedCombined);
+	}
+}
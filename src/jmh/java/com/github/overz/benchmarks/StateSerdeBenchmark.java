@@ -0,0 +1,109 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.serdes.ConsumerSetSerdes;
+import com.github.overz.serdes.PageMetadataSerdes;
+import com.github.overz.serdes.PaginationSummarySerdes;
+import com.github.overz.serdes.SerdeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Metadata, summary and consumer set serdes, the summary and consumer sets grow with the pages and consumers of
+// a pagination and are read and written with every page or ack
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StateSerdeBenchmark {
+	@Param({ "JSON", "KRYO", "KRYO_ZSTD" })
+	private SerdeFormat format;
+
+	// pages of the summary, consumers of the consumer set
+	@Param({ "10", "1000", "10000" })
+	private int entries;
+
+	private PageMetadataSerdes metadataSerdes;
+	private PaginationSummarySerdes summarySerdes;
+	private ConsumerSetSerdes consumerSetSerdes;
+	private PageMetadata metadata;
+	private PaginationSummary summary;
+	private ConsumerSet consumers;
+	private byte[] serializedMetadata;
+	private byte[] serializedSummary;
+	private byte[] serializedConsumers;
+
+	@Setup
+	public void setup() {
+		metadataSerdes = PageMetadataSerdes.of(format);
+		summarySerdes = PaginationSummarySerdes.of(format);
+		consumerSetSerdes = ConsumerSetSerdes.of(format);
+
+		final var paginationId = Fixtures.paginationId();
+		metadata = Fixtures.metadata(Fixtures.headers(paginationId, 1, entries, 1024));
+		summary = PaginationSummary.newSummary(Fixtures.headers(paginationId, 1, entries, 1024));
+		var set = ConsumerSet.empty();
+		for (int i = 0; i < entries; i++) {
+			summary = summary.addPage(Fixtures.headers(paginationId, i + 1, entries, 1024));
+			set = set.with(i);
+		}
+		summary = summary.updateStatus();
+		consumers = set;
+
+		serializedMetadata = metadataSerdes.serializer().serialize(Fixtures.TOPIC, metadata);
+		serializedSummary = summarySerdes.serializer().serialize(Fixtures.TOPIC, summary);
+		serializedConsumers = consumerSetSerdes.serializer().serialize(Fixtures.TOPIC, consumers);
+	}
+
+	@TearDown
+	public void tearDown() {
+		metadataSerdes.close();
+		summarySerdes.close();
+		consumerSetSerdes.close();
+	}
+
+	@Benchmark
+	public byte[] serializeMetadata() {
+		return metadataSerdes.serializer().serialize(Fixtures.TOPIC, metadata);
+	}
+
+	@Benchmark
+	public PageMetadata deserializeMetadata() {
+		return metadataSerdes.deserializer().deserialize(Fixtures.TOPIC, serializedMetadata);
+	}
+
+	@Benchmark
+	public byte[] serializeSummary() {
+		return summarySerdes.serializer().serialize(Fixtures.TOPIC, summary);
+	}
+
+	@Benchmark
+	public PaginationSummary deserializeSummary() {
+		return summarySerdes.deserializer().deserialize(Fixtures.TOPIC, serializedSummary);
+	}
+
+	@Benchmark
+	public byte[] serializeConsumers() {
+		return consumerSetSerdes.serializer().serialize(Fixtures.TOPIC, consumers);
+	}
+
+	@Benchmark
+	public ConsumerSet deserializeConsumers() {
+		return consumerSetSerdes.deserializer().deserialize(Fixtures.TOPIC, serializedConsumers);
+	}
+}
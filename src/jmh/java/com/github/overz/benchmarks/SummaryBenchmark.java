@@ -0,0 +1,118 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.dtos.PaginationData;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.processors.ExpiryIndex;
+import com.github.overz.processors.PaginationSummaryProcessor;
+import com.github.overz.serdes.PaginationSummarySerdes;
+import com.github.overz.serdes.SerdeFormat;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.processor.api.MockProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Every page of a pagination through PaginationSummaryProcessor, each one reads, updates and writes the summary so
+// the cost per page grows with the pages already received. The stores are in memory so the numbers are the
+// processor's and the serde's, not RocksDB's.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryBenchmark {
+	private static final String SUMMARY_STORE = "summary";
+	private static final String EXPIRY_STORE = "expiry";
+
+	@Param({ "KRYO", "KRYO_ZSTD", "JSON" })
+	private SerdeFormat format;
+
+	@Param({ "10", "100", "1000", "5000" })
+	private int pages;
+
+	private Path stateDir;
+	private PaginationSummarySerdes serdes;
+	private MockProcessorContext<String, PaginationSummary> context;
+	private PaginationSummaryProcessor processor;
+	private KeyValueStore<String, PaginationSummary> summaryStore;
+	private ExpiryIndex expiryIndex;
+	private String paginationId;
+	private List<Record<String, PaginationData>> records;
+
+	@Setup
+	public void setup() throws IOException {
+		stateDir = Files.createTempDirectory("summary-benchmark");
+		final var config = new Properties();
+		config.put(StreamsConfig.APPLICATION_ID_CONFIG, "summary-benchmark");
+		config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+		config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+		context = new MockProcessorContext<>(config);
+
+		serdes = PaginationSummarySerdes.of(format);
+		summaryStore = Stores.keyValueStoreBuilder(Stores.inMemoryKeyValueStore(SUMMARY_STORE), Serdes.String(), serdes)
+			.withLoggingDisabled()
+			.build();
+		final KeyValueStore<String, String> expiryStore =
+			Stores.keyValueStoreBuilder(Stores.inMemoryKeyValueStore(EXPIRY_STORE), Serdes.String(), Serdes.String())
+				.withLoggingDisabled()
+				.build();
+		summaryStore.init(context.getStateStoreContext(), summaryStore);
+		expiryStore.init(context.getStateStoreContext(), expiryStore);
+		context.addStateStore(summaryStore);
+		context.addStateStore(expiryStore);
+		expiryIndex = new ExpiryIndex(expiryStore, Fixtures.POLICY);
+
+		processor = new PaginationSummaryProcessor(SUMMARY_STORE, EXPIRY_STORE, Fixtures.POLICY);
+		processor.init(context);
+
+		// the summary processor only reads the packed headers
+		paginationId = Fixtures.paginationId();
+		records = new ArrayList<>(pages);
+		for (int page = 1; page <= pages; page++) {
+			final var headers = Fixtures.headers(paginationId, page, pages, 1024);
+			records.add(new Record<>(paginationId, null, headers.messageTime().toEpochMilli(), Fixtures.packed(headers)));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		summaryStore.close();
+		serdes.close();
+		Utils.delete(stateDir.toFile());
+	}
+
+	@Benchmark
+	public PaginationSummary pagination() {
+		for (final var record : records) {
+			processor.process(record);
+		}
+		context.resetForwards();
+
+		// the next invocation starts the same pagination over
+		expiryIndex.cancel(paginationId);
+		return summaryStore.delete(paginationId);
+	}
+}
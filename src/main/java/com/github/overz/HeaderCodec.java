@@ -0,0 +1,115 @@
+package com.github.overz;
+
+import com.github.overz.dtos.MessageHeaders;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// Packs every pagination header into the single HeaderKey.PAGINATION header:
+// [version][offset][partition][message time][total elements][page size][page number][key size][value size]
+// [original key size][original value size][part index][part count] followed by length prefixed origin,
+// pagination id, message id, composite key and topic. Numbers are fixed width and big endian, version 1 headers
+// have no part fields.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HeaderCodec {
+	private static final byte VERSION = 2;
+	private static final byte UNSPLIT_VERSION = 1;
+	private static final int FIXED_SIZE = 1 + 2 * Long.BYTES + 10 * Integer.BYTES;
+
+	// every processor of a hop decodes the same header instance, so the last decoded one is kept per thread
+	private static final ThreadLocal<Decoded> LAST_DECODED = new ThreadLocal<>();
+
+	private record Decoded(byte[] raw, MessageHeaders headers) {
+	}
+
+	public static byte[] encode(final MessageHeaders headers) {
+		final var origin = utf8(headers.origin());
+		final var paginationId = utf8(headers.paginationId());
+		final var messageId = utf8(headers.messageId());
+		final var compositeKey = utf8(headers.compositeKey());
+		final var topic = utf8(headers.topic());
+		final var size = FIXED_SIZE + 5 * Integer.BYTES
+			+ origin.length + paginationId.length + messageId.length + compositeKey.length + topic.length;
+
+		final var buffer = ByteBuffer.allocate(size)
+			.put(VERSION)
+			.putLong(headers.offset())
+			.putInt(headers.partition())
+			.putLong(headers.messageTime().toEpochMilli())
+			.putInt(headers.totalElements())
+			.putInt(headers.pageSize())
+			.putInt(headers.pageNumber())
+			.putInt(headers.keySize())
+			.putInt(headers.valueSize())
+			.putInt(headers.originalKeySize())
+			.putInt(headers.originalValueSize())
+			.putInt(headers.partIndex())
+			.putInt(headers.partCount());
+		put(buffer, origin);
+		put(buffer, paginationId);
+		put(buffer, messageId);
+		put(buffer, compositeKey);
+		put(buffer, topic);
+		return buffer.array();
+	}
+
+	public static MessageHeaders decode(final byte[] raw) {
+		final var last = LAST_DECODED.get();
+		if (last != null && last.raw() == raw) {
+			return last.headers();
+		}
+
+		final var headers = doDecode(raw);
+		LAST_DECODED.set(new Decoded(raw, headers));
+		return headers;
+	}
+
+	private static MessageHeaders doDecode(final byte[] raw) {
+		final var buffer = ByteBuffer.wrap(raw);
+		final var version = buffer.get();
+		if (version != VERSION && version != UNSPLIT_VERSION) {
+			throw new IllegalArgumentException("unsupported pagination header version '" + version + "'");
+		}
+
+		final var builder = MessageHeaders.builder()
+			.offset(buffer.getLong())
+			.partition(buffer.getInt())
+			.messageTime(Instant.ofEpochMilli(buffer.getLong()))
+			.totalElements(buffer.getInt())
+			.pageSize(buffer.getInt())
+			.pageNumber(buffer.getInt())
+			.keySize(buffer.getInt())
+			.valueSize(buffer.getInt())
+			.originalKeySize(buffer.getInt())
+			.originalValueSize(buffer.getInt());
+		if (version == VERSION) {
+			builder.partIndex(buffer.getInt()).partCount(buffer.getInt());
+		}
+
+		return builder
+			.origin(string(buffer))
+			.paginationId(string(buffer))
+			.messageId(string(buffer))
+			.compositeKey(string(buffer))
+			.topic(string(buffer))
+			.build();
+	}
+
+	private static byte[] utf8(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void put(final ByteBuffer buffer, final byte[] value) {
+		buffer.putInt(value.length).put(value);
+	}
+
+	private static String string(final ByteBuffer buffer) {
+		final var length = buffer.getInt();
+		final var value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+}
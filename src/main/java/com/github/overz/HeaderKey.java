@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.apache.kafka.common.header.Headers;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
@@ -24,7 +25,26 @@ public class HeaderKey {
 	public static final String PAGE_VALUE_SIZE = "VALUE_SIZE";
 	public static final String ORIGINAL_KEY_SIZE = "ORIGINAL_KEY_SIZE";
 	public static final String ORIGINAL_VALUE_SIZE = "ORIGINAL_VALUE_SIZE";
+	// every header above packed by HeaderCodec, written once the record enters the pagination
+	public static final String PAGINATION = "PAGINATION";
+	// parts of a record split by the validator, binary integers
+	public static final String PART_INDEX = "PART_INDEX";
+	public static final String PART_COUNT = "PART_COUNT";
+	// producer key of a page published by the STREAMING output mode, which keys its records by pagination id
+	public static final String PAGE_KEY = "PAGE_KEY";
+	// merged payloads published by the MERGED output mode
+	public static final String CHUNK_INDEX = "CHUNK_INDEX";
+	public static final String CHUNK_COUNT = "CHUNK_COUNT";
+	public static final String CONTENT_ENCODING = "CONTENT_ENCODING";
+	// queue namespace of a registration or ack, the default namespace when missing
+	public static final String QUEUE = "QUEUE";
+	// added to the records sent to a dead-letter topic
+	public static final String DEAD_LETTER_REASON = "DEAD_LETTER_REASON";
+	public static final String DEAD_LETTER_TOPIC = "DEAD_LETTER_TOPIC";
+	public static final String DEAD_LETTER_PARTITION = "DEAD_LETTER_PARTITION";
+	public static final String DEAD_LETTER_OFFSET = "DEAD_LETTER_OFFSET";
 
+	// decimal strings, read back with integer() and longValue()
 	public static byte[] bytes(final int v) {
 		return String.valueOf(v).getBytes(StandardCharsets.UTF_8);
 	}
@@ -33,18 +53,41 @@ public class HeaderKey {
 		return String.valueOf(v).getBytes(StandardCharsets.UTF_8);
 	}
 
+	// fixed width integers of the PART headers, read back with binaryInt()
+	public static byte[] binaryBytes(final int v) {
+		return ByteBuffer.allocate(Integer.BYTES).putInt(v).array();
+	}
+
+	public static int binaryInt(final Headers headers, final String key, final int defaultValue) {
+		final var header = headers.lastHeader(key);
+		return header != null ? ByteBuffer.wrap(header.value()).getInt() : defaultValue;
+	}
+
 	public static String string(final Headers headers, final String key) {
 		final var header = headers.lastHeader(key);
 		return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
 	}
 
+	// headers set by producers are decimal strings
 	public static int integer(final Headers headers, final String key) {
 		final var val = string(headers, key);
 		return val != null ? Integer.parseInt(val) : -1;
 	}
 
+	public static long longValue(final Headers headers, final String key) {
+		final var val = string(headers, key);
+		return val != null ? Long.parseLong(val) : -1;
+	}
+
+	// accepts epoch millis, which is what MESSAGE_TIME has always been written as, and ISO-8601 instants
 	public static Instant instant(final Headers headers, final String key) {
 		final var val = string(headers, key);
-		return val != null ? Instant.parse(val) : null;
+		if (val == null) {
+			return null;
+		}
+
+		return !val.isEmpty() && Character.isDigit(val.charAt(0)) ?
+			Instant.ofEpochMilli(Long.parseLong(val)) :
+			Instant.parse(val);
 	}
 }
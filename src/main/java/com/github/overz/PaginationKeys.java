@@ -0,0 +1,73 @@
+package com.github.overz;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// Pages are stored under "<paginationId>@<pageNumber>" with the page number zero padded, so the keys of a
+// pagination are contiguous and sorted by page number in the stores. Pages split in parts are stored under
+// "<paginationId>@<pageNumber>#<partCount>-<partIndex>", right after where the whole page would be.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PaginationKeys {
+	public static final char SEPARATOR = '@';
+	public static final char PART_SEPARATOR = '#';
+	private static final char PART_INDEX_SEPARATOR = '-';
+	private static final int PAGE_DIGITS = 10;
+	private static final int PART_DIGITS = 5;
+
+	public static String composite(final String paginationId, final int pageNumber) {
+		return paginationId + SEPARATOR + pad(pageNumber, PAGE_DIGITS);
+	}
+
+	public static String part(final String paginationId, final int pageNumber, final int partIndex, final int partCount) {
+		return composite(paginationId, pageNumber)
+			+ PART_SEPARATOR + pad(partCount, PART_DIGITS)
+			+ PART_INDEX_SEPARATOR + pad(partIndex, PART_DIGITS);
+	}
+
+	public static String paginationId(final String compositeKey) {
+		return compositeKey.substring(0, compositeKey.lastIndexOf(SEPARATOR));
+	}
+
+	public static String prefix(final String paginationId) {
+		return paginationId + SEPARATOR;
+	}
+
+	// keys written before the page number layout end with the message id instead
+	public static boolean hasPageNumber(final String compositeKey) {
+		final var start = compositeKey.lastIndexOf(SEPARATOR) + 1;
+		final var end = start + PAGE_DIGITS;
+		if (compositeKey.length() < end || (compositeKey.length() > end && compositeKey.charAt(end) != PART_SEPARATOR)) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (!Character.isDigit(compositeKey.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static int pageNumber(final String compositeKey) {
+		final var start = compositeKey.lastIndexOf(SEPARATOR) + 1;
+		return Integer.parseInt(compositeKey, start, start + PAGE_DIGITS, 10);
+	}
+
+	public static boolean isPart(final String compositeKey) {
+		return compositeKey.indexOf(PART_SEPARATOR, compositeKey.lastIndexOf(SEPARATOR)) >= 0;
+	}
+
+	public static int partCount(final String partKey) {
+		final var start = partKey.lastIndexOf(PART_SEPARATOR) + 1;
+		return Integer.parseInt(partKey, start, start + PART_DIGITS, 10);
+	}
+
+	public static int partIndex(final String partKey) {
+		final var start = partKey.lastIndexOf(PART_INDEX_SEPARATOR) + 1;
+		return Integer.parseInt(partKey, start, start + PART_DIGITS, 10);
+	}
+
+	private static String pad(final int value, final int digits) {
+		final var text = Integer.toString(value);
+		return "0".repeat(Math.max(digits - text.length(), 0)) + text;
+	}
+}
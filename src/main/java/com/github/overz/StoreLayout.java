@@ -0,0 +1,11 @@
+package com.github.overz;
+
+// How a page and its metadata are stored. Pages and metadata written with either layout stay readable with the
+// other one, and cleanup removes both stores' entries, so the layout can be switched on a running application.
+public enum StoreLayout {
+	// page in the page store and metadata in the metadata store, two writes and two changelog records per page
+	SEPARATE,
+	// metadata stored within the page, one write and one changelog record per page
+	COMBINED,
+	;
+}
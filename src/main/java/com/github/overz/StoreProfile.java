@@ -0,0 +1,19 @@
+package com.github.overz;
+
+// Tiers and layout of a queue namespace's stores, what a queue leaves unset falls back to the application's profile
+public record StoreProfile(
+	StoreTier summary,
+	StoreTier ack,
+	StoreTier registration,
+	StoreLayout layout
+) {
+
+	public StoreProfile orElse(final StoreProfile defaults) {
+		return new StoreProfile(
+			summary != null ? summary : defaults.summary(),
+			ack != null ? ack : defaults.ack(),
+			registration != null ? registration : defaults.registration(),
+			layout != null ? layout : defaults.layout()
+		);
+	}
+}
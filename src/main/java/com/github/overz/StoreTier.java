@@ -0,0 +1,30 @@
+package com.github.overz;
+
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+
+// Where the small, hot stores keep their entries. Every tier is backed by its changelog topic.
+public enum StoreTier {
+	// RocksDB only
+	PERSISTENT,
+	// RocksDB behind the Kafka Streams record cache: an LRU bounded by statestore.cache.max.bytes that absorbs
+	// repeated reads and writes of the same key and writes behind to RocksDB on commit and eviction
+	CACHED,
+	// on heap only, restored from the changelog on startup, for stores known to fit in memory
+	IN_MEMORY,
+	;
+
+	public <V> StoreBuilder<KeyValueStore<String, V>> builder(
+		final String name,
+		final Serde<String> keySerde,
+		final Serde<V> valueSerde
+	) {
+		final var supplier = this == IN_MEMORY ?
+			Stores.inMemoryKeyValueStore(name) :
+			Stores.persistentKeyValueStore(name);
+		final var builder = Stores.keyValueStoreBuilder(supplier, keySerde, valueSerde);
+		return this == CACHED ? builder.withCachingEnabled() : builder;
+	}
+}
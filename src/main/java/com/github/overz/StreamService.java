@@ -1,40 +1,119 @@
 package com.github.overz;
 
+import com.github.overz.deadletter.DeadLetterPublisher;
 import com.github.overz.dtos.*;
+import com.github.overz.metrics.PaginationMetrics;
+import com.github.overz.metrics.QueueMetrics;
 import com.github.overz.processors.*;
+import com.github.overz.serdes.PaginationSummarySerdes;
+import com.github.overz.serdes.SerdeFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.Produced;
 import org.apache.kafka.streams.kstream.Repartitioned;
 import org.apache.kafka.streams.state.Stores;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.kafka.core.KafkaAdmin;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+import static com.github.overz.processors.TimedProcessor.timed;
 
 @Slf4j
 @RequiredArgsConstructor
 public class StreamService implements InitializingBean, DisposableBean {
-	private static final String PAGE_STORE_NAME = "pagination-page-store";
-	private static final String METADATA_STORE_NAME = "pagination-metadata-store";
+	public static final String PAGE_STORE_NAME = "pagination-page-store";
+	public static final String METADATA_STORE_NAME = "pagination-metadata-store";
 	private static final String SUMMARY_STORE_NAME = "pagination-summary-store";
 	private static final String REGISTRATION_STORE_NAME = "pagination-registrations-store";
 	private static final String ACK_STORE_NAME = "pagination-acks-store";
+	private static final String EXPIRY_STORE_NAME = "pagination-expiry-store";
+	private static final String CONSUMER_ID_STORE_NAME = "pagination-consumer-ids-store";
+	private static final String NOTIFICATION_STORE_NAME = "pagination-notifications-store";
+	private static final String ACK_REPARTITION_NAME = "pagination-ack";
+	private static final String REGISTRATION_REPARTITION_NAME = "pagination-registration";
 
 	private final String consumersTopic;
 	private final String ackTopic;
+	// completion notices keyed by consumer id, not sent when null
+	private final String notificationsTopic;
 	private final StreamsBuilder builder;
+	// configuration of the application's Kafka Streams, isolated queues run with a copy of it
+	private final Properties streamsConfig;
 	private final List<Queue> queues;
 	private final Serde<PageData> pageDataSerdes;
 	private final Serde<PageMetadata> pageMetadataSerdes;
 	private final Serde<PaginationSummary> paginationSummarySerdes;
-	private final Serde<Set<String>> hashSetSerde;
+	private final Serde<ConsumerSet> consumerSetSerde;
+	private final ExpiryPolicy expiryPolicy;
+	private final DeadLetterPublisher deadLetterPublisher;
+	// store profile of the namespaces whose first queue does not set one
+	private final StoreProfile storeProfile;
+	// largest record of the queues that do not set one
+	private final int maxMessageSize;
+	// highest page number accepted, pages beyond it are sent to the dead-letter topic
+	private final int maxPages;
+	private final KafkaAdmin kafkaAdmin;
+	private final PaginationMetrics metrics;
+
+	private final Map<String, KafkaStreams> isolatedStreams = new ConcurrentHashMap<>();
+	// the summaries published on the queue outputs stay JSON whatever format the summary store uses
+	private final Serde<PaginationSummary> outputSummarySerdes = PaginationSummarySerdes.of(SerdeFormat.JSON);
+
+	// Stores of a queue namespace, queues without a name share the unsuffixed ones
+	public record StoreNames(
+		String page,
+		String metadata,
+		String summary,
+		String registration,
+		String ack,
+		String consumerIds,
+		String expiry,
+		String notification
+	) {
+
+		public static StoreNames of(final String namespace) {
+			return new StoreNames(
+				name(PAGE_STORE_NAME, namespace),
+				name(METADATA_STORE_NAME, namespace),
+				name(SUMMARY_STORE_NAME, namespace),
+				name(REGISTRATION_STORE_NAME, namespace),
+				name(ACK_STORE_NAME, namespace),
+				name(CONSUMER_ID_STORE_NAME, namespace),
+				name(EXPIRY_STORE_NAME, namespace),
+				name(NOTIFICATION_STORE_NAME, namespace)
+			);
+		}
+
+		// the stores every namespace has, the notification store only exists with a notifications topic
+		public List<String> all() {
+			return List.of(page, metadata, summary, registration, ack, consumerIds, expiry);
+		}
+
+		private static String name(final String store, final String namespace) {
+			return namespace == null ? store : store + "-" + namespace;
+		}
+	}
 
 	@Override
 	public void afterPropertiesSet() throws Exception {
@@ -43,84 +122,384 @@ public class StreamService implements InitializingBean, DisposableBean {
 
 	@Override
 	public void destroy() throws Exception {
+		isolatedStreams.values().forEach(KafkaStreams::close);
 		try {
 			pageDataSerdes.close();
 			pageMetadataSerdes.close();
 			paginationSummarySerdes.close();
+			outputSummarySerdes.close();
 		} catch (Exception _) {
 			// ignored
 		}
 	}
 
+	// the instance running the stores of the namespace, null for the application's own one
+	public KafkaStreams isolatedStreams(final String namespace) {
+		return namespace != null ? isolatedStreams.get(namespace) : null;
+	}
+
 	public void buildStream() {
+		final var names = new HashSet<String>();
+		// the registrations and acks of a namespace are repartitioned once for all of its queues, a pagination's pages
+		// must land on the same task as them
+		final var partitions = new HashMap<String, Integer>();
+		for (final var q : queues) {
+			if (q.name() != null && !names.add(q.name())) {
+				throw new IllegalStateException("Queue name '" + q.name() + "' is used more than once");
+			}
+			final var namespacePartitions = partitions.putIfAbsent(q.name(), q.repartitions());
+			if (namespacePartitions != null && !Objects.equals(namespacePartitions, q.repartitions())) {
+				throw new IllegalStateException("Queues without a name must all have the same repartitions, got "
+					+ namespacePartitions + " and " + q.repartitions() + " for input '" + q.source() + "'");
+			}
+		}
+
+		// registrations and acks without a QUEUE header go to the unnamed queues, or to the first queue without any
+		final var defaultNamespace = queues.stream().anyMatch(q -> q.name() == null) ? null : queues.getFirst().name();
+
+		buildTopology(builder, queues.stream().filter(q -> !q.isIsolated()).toList(), defaultNamespace);
+
+		for (final var q : queues) {
+			if (!q.isIsolated()) {
+				continue;
+			}
+
+			final var isolatedBuilder = new StreamsBuilder();
+			buildTopology(isolatedBuilder, List.of(q), defaultNamespace);
+
+			final var config = new Properties();
+			config.putAll(streamsConfig);
+			config.put(StreamsConfig.APPLICATION_ID_CONFIG, config.get(StreamsConfig.APPLICATION_ID_CONFIG) + "-" + q.name());
+			config.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, q.threads());
+
+			final var streams = new KafkaStreams(isolatedBuilder.build(config), config);
+			isolatedStreams.put(q.name(), streams);
+			log.info("Starting queue '{}' in its own Kafka Streams instance with {} threads", q.name(), q.threads());
+			streams.start();
+		}
+	}
+
+	// every namespace is a sub-topology of its own: its inputs, registrations and acks only reach its stores
+	private void buildTopology(final StreamsBuilder target, final List<Queue> topologyQueues, final String defaultNamespace) {
+		if (topologyQueues.isEmpty()) {
+			return;
+		}
+
+		final var stringSerdes = Serdes.String();
+		final var namespaces = new LinkedHashMap<String, List<Queue>>();
+		for (final var q : topologyQueues) {
+			namespaces.computeIfAbsent(q.name(), _ -> new ArrayList<>()).add(q);
+		}
+
+		final var registrations = target.stream(consumersTopic, Consumed.with(stringSerdes, stringSerdes))
+			.filter((key, value) -> key != null && value != null);
+
+		// batched acks are keyed by consumer, they are split into single acks and moved to their pagination's partition
+		final var acks = target.stream(ackTopic, Consumed.with(stringSerdes, stringSerdes))
+			.filter((key, value) -> value != null)
+			.<String, String>flatMap((key, value) -> {
+				if (AckBatch.isBatch(value)) {
+					return AckBatch.parse(value).acks();
+				}
+				return key != null ? List.of(KeyValue.pair(key, value)) : List.<KeyValue<String, String>>of();
+			});
+
+		// notices are flushed with every commit, a consumer gets at most one per commit interval
+		final var flushInterval = notificationsTopic != null ?
+			Duration.ofMillis(new StreamsConfig(streamsConfig).getLong(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG)) :
+			null;
+
+		for (final var namespace : namespaces.entrySet()) {
+			final var first = namespace.getValue().getFirst();
+			final var stores = StoreNames.of(namespace.getKey());
+			final var profile = first.stores() != null ? first.stores().orElse(storeProfile) : storeProfile;
+			addStores(target, stores, profile);
+			metrics.stores(namespace.getKey(), stores);
+			final var summaries = new ArrayList<KStream<String, PaginationSummary>>();
+			for (final var q : namespace.getValue()) {
+				summaries.add(buildQueue(target, q, stores, profile));
+			}
+
+			final var isDefault = Objects.equals(namespace.getKey(), defaultNamespace);
+			final var partitions = first.repartitions();
+			final var namespaceMetrics = metrics.namespace(namespace.getKey());
+			final var namespaceRegistrations =
+				route(registrations, namespace.getKey(), isDefault, REGISTRATION_REPARTITION_NAME, partitions);
+			buildRegistrations(namespaceRegistrations, stores, namespaceMetrics);
+			if (notificationsTopic != null) {
+				buildNotifications(
+					namespace.getKey(), summaries, namespaceRegistrations, stores, flushInterval, namespaceMetrics
+				);
+			}
+			buildAcks(route(acks, namespace.getKey(), isDefault, ACK_REPARTITION_NAME, partitions), stores, namespaceMetrics);
+		}
+	}
+
+	private void addStores(final StreamsBuilder target, final StoreNames stores, final StoreProfile profile) {
 		final var stringSerdes = Serdes.String();
-		final var genericSerdes = Serdes.ByteArray();
 
 		final var pageStorage = Stores.keyValueStoreBuilder(
-			Stores.persistentKeyValueStore(PAGE_STORE_NAME), stringSerdes, pageDataSerdes
+			Stores.persistentKeyValueStore(stores.page()), stringSerdes, pageDataSerdes
 		);
 		final var metadataStorage = Stores.keyValueStoreBuilder(
-			Stores.persistentKeyValueStore(METADATA_STORE_NAME), stringSerdes, pageMetadataSerdes
-		);
-		final var summaryStorage = Stores.keyValueStoreBuilder(
-			Stores.persistentKeyValueStore(SUMMARY_STORE_NAME), stringSerdes, paginationSummarySerdes
-		);
-		final var registrationStorage = Stores.keyValueStoreBuilder(
-			Stores.persistentKeyValueStore(REGISTRATION_STORE_NAME), stringSerdes, hashSetSerde
+			Stores.persistentKeyValueStore(stores.metadata()), stringSerdes, pageMetadataSerdes
 		);
-		final var ackStorage = Stores.keyValueStoreBuilder(
-			Stores.persistentKeyValueStore(ACK_STORE_NAME), stringSerdes, hashSetSerde
+		// read and written with every page or ack
+		final var summaryStorage = profile.summary().builder(stores.summary(), stringSerdes, paginationSummarySerdes);
+		final var registrationStorage = profile.registration().builder(stores.registration(), stringSerdes, consumerSetSerde);
+		final var ackStorage = profile.ack().builder(stores.ack(), stringSerdes, consumerSetSerde);
+		final var consumerIdStorage = profile.registration().builder(stores.consumerIds(), stringSerdes, stringSerdes);
+		final var expiryStorage = Stores.keyValueStoreBuilder(
+			Stores.persistentKeyValueStore(stores.expiry()), stringSerdes, stringSerdes
 		);
 
-		builder
+		target
 			.addStateStore(pageStorage)
 			.addStateStore(metadataStorage)
 			.addStateStore(summaryStorage)
 			.addStateStore(registrationStorage)
-			.addStateStore(ackStorage);
+			.addStateStore(ackStorage)
+			.addStateStore(consumerIdStorage)
+			.addStateStore(expiryStorage);
+		if (notificationsTopic != null) {
+			target.addStateStore(profile.registration().builder(stores.notification(), stringSerdes, consumerSetSerde));
+		}
+	}
 
-		final var maxMessageSize = Optional.ofNullable(System.getenv("MAX_MESSAGE_SIZE"))
-			.map(Integer::parseInt)
-			.orElse(900 * 1024);
+	// returns the summaries of the queue, every page updates one and a pagination is completed once
+	private KStream<String, PaginationSummary> buildQueue(
+		final StreamsBuilder target,
+		final Queue q,
+		final StoreNames stores,
+		final StoreProfile profile
+	) {
+		final var stringSerdes = Serdes.String();
+		final var genericSerdes = Serdes.ByteArray();
+		final var layout = profile.layout();
+		final var maxMessageSize = q.maxMessageSize() != null ? q.maxMessageSize() : this.maxMessageSize;
+		final var queueMetrics = metrics.queue(q);
 
-		for (final var q : queues) {
-			final var repartitionName = q.input() + "-pagination-repartition";
+		final var repartitionName = q.source() + "-pagination-repartition";
+		deadLetterPublisher.register(repartitionName, q.deadLetterTopic());
+		if (q.isPattern()) {
+			deadLetterPublisher.register(Pattern.compile(q.inputPattern()), q.deadLetterTopic());
+		} else {
+			deadLetterPublisher.register(q.input(), q.deadLetterTopic());
+		}
 
-			final var repartitioned = Repartitioned.<String, PageData>numberOfPartitions(q.repartitions())
-				.withName(repartitionName)
-				.withKeySerde(stringSerdes)
-				.withValueSerde(pageDataSerdes);
+		final var repartitioned = Repartitioned.<String, PageData>numberOfPartitions(q.repartitions())
+			.withName(repartitionName)
+			.withKeySerde(stringSerdes)
+			.withValueSerde(pageDataSerdes);
 
-			builder.stream(q.input(), Consumed.with(genericSerdes, genericSerdes))
-				.process(() -> new MessageValidatorProcessor(maxMessageSize))
-				.process(() -> new ExtractDataProcessor(pageDataSerdes.serializer()))
+		final var inPlace = q.coPartitioned();
+		if (inPlace) {
+			verifyCoPartitioned(q);
+		}
+		final var consumed = Consumed.with(genericSerdes, genericSerdes);
+		// a pattern queue is a single sub-topology however many inputs match it
+		final var input = q.isPattern() ?
+			target.stream(Pattern.compile(q.inputPattern()), consumed) :
+			target.stream(q.input(), consumed);
+		final var extracted = input
+			.peek(queueMetrics::received)
+			.process(timed(
+				queueMetrics.processor("validator"),
+				() -> new MessageValidatorProcessor(maxMessageSize, deadLetterPublisher, queueMetrics)
+			))
+			.process(timed(
+				queueMetrics.processor("extract"),
+				() -> new ExtractDataProcessor(pageDataSerdes.serializer(), inPlace, maxPages)
+			));
+		// input keyed by pagination id is already on the partition of its pagination
+		final var pages = inPlace ?
+			extracted :
+			extracted
 				.selectKey((k, v) -> k)
-				.repartition(repartitioned)
-				.process(() -> new PageDataProcessor(PAGE_STORE_NAME), PAGE_STORE_NAME)
-				.process(() -> new PageMetadataProcessor(METADATA_STORE_NAME, pageMetadataSerdes.serializer()), METADATA_STORE_NAME)
-				.process(() -> new PaginationSummaryProcessor(SUMMARY_STORE_NAME), SUMMARY_STORE_NAME)
-				.filter((key, value) -> value != null && value.status() == PaginationStatus.COMPLETED)
-				.to(q.output(), Produced.with(stringSerdes, paginationSummarySerdes));
+				.repartition(repartitioned);
+
+		final var summaries = (q.fused() ?
+			pages.process(
+				timed(queueMetrics.processor("pagination"), () -> new PaginationProcessor(
+					stores.page(), stores.metadata(), stores.summary(), stores.expiry(), expiryPolicy, layout
+				)),
+				stores.page(), stores.metadata(), stores.summary(), stores.expiry()
+			) :
+			pages
+				.process(
+					timed(
+						queueMetrics.processor("page"),
+						() -> new PageDataProcessor(stores.page(), stores.summary(), stores.metadata(), layout)
+					),
+					stores.page(), stores.summary(), stores.metadata()
+				)
+				.process(
+					timed(
+						queueMetrics.processor("metadata"),
+						() -> new PageMetadataProcessor(stores.metadata(), pageMetadataSerdes.serializer(), layout)
+					),
+					stores.metadata()
+				)
+				.process(
+					timed(
+						queueMetrics.processor("summary"),
+						() -> new PaginationSummaryProcessor(stores.summary(), stores.expiry(), expiryPolicy)
+					),
+					stores.summary(), stores.expiry()
+				))
+			// a pagination is forwarded as completed once, redelivered pages of it are dropped by the processors
+			.peek((key, value) -> {
+				if (value != null && value.status() == PaginationStatus.COMPLETED && value.openedAt() > 0) {
+					queueMetrics.completed(System.currentTimeMillis() - value.openedAt());
+				}
+			});
+
+		switch (q.outputMode()) {
+			case SUMMARY -> to(
+				summaries.filter((key, value) -> value != null && value.status() == PaginationStatus.COMPLETED),
+				q,
+				Produced.with(stringSerdes, outputSummarySerdes)
+			);
+			case STREAMING -> to(
+				summaries.process(
+					timed(queueMetrics.processor("emitter"), () -> new PageEmitterProcessor(stores.page(), stores.summary())),
+					stores.page(), stores.summary()
+				),
+				q,
+				Produced.with(genericSerdes, genericSerdes)
+			);
+			case MERGED -> to(
+				summaries
+					.filter((key, value) -> value != null && value.status() == PaginationStatus.COMPLETED)
+					.process(
+						timed(
+							queueMetrics.processor("merged"),
+							() -> new MergedPayloadProcessor(stores.page(), maxMessageSize, ForkJoinPool.commonPool())
+						),
+						stores.page()
+					),
+				q,
+				Produced.with(stringSerdes, genericSerdes)
+			);
+		}
+		return summaries;
+	}
+
+	private static <K, V> void to(final KStream<K, V> stream, final Queue q, final Produced<K, V> produced) {
+		if (q.isOutputTemplate()) {
+			stream.to(new OutputTopicExtractor<>(q.output()), produced);
+		} else {
+			stream.to(q.output(), produced);
 		}
+	}
+
+	// the repartition moves the namespace's records to a topic co-partitioned with its stores only
+	private static KStream<String, String> route(
+		final KStream<String, String> stream,
+		final String namespace,
+		final boolean isDefault,
+		final String repartitionName,
+		final int partitions
+	) {
+		final var stringSerdes = Serdes.String();
+		return stream
+			.process(() -> new QueueRouteProcessor(namespace, isDefault))
+			.repartition(Repartitioned.<String, String>as(namespace == null ? repartitionName : repartitionName + "-" + namespace)
+				.withNumberOfPartitions(partitions)
+				.withKeySerde(stringSerdes)
+				.withValueSerde(stringSerdes));
+	}
 
-		builder.stream(consumersTopic, Consumed.with(stringSerdes, stringSerdes))
-			.filter((key, value) -> key != null && value != null)
+	private void buildRegistrations(
+		final KStream<String, String> registrations,
+		final StoreNames stores,
+		final QueueMetrics namespaceMetrics
+	) {
+		registrations
 			.peek((key, value) -> log.info(
 				"Registering interest for pagination-id'{}' from consumer '{}'", key, value
 			))
-			.process(() -> new RegistrationProcessor(REGISTRATION_STORE_NAME));
+			.process(
+				timed(
+					namespaceMetrics.processor("registration"),
+					() -> new RegistrationProcessor(stores.registration(), stores.consumerIds(), stores.expiry(), expiryPolicy)
+				),
+				stores.registration(), stores.consumerIds(), stores.expiry()
+			);
+	}
+
+	// completions and late registrations share the notification store, the registration side flushes it
+	private void buildNotifications(
+		final String namespace,
+		final List<KStream<String, PaginationSummary>> summaries,
+		final KStream<String, String> registrations,
+		final StoreNames stores,
+		final Duration flushInterval,
+		final QueueMetrics namespaceMetrics
+	) {
+		for (final var queueSummaries : summaries) {
+			queueSummaries.process(
+				timed(
+					namespaceMetrics.processor("completion-notifier"),
+					() -> new CompletionNotifier(stores.registration(), stores.consumerIds(), stores.notification())
+				),
+				stores.registration(), stores.consumerIds(), stores.notification()
+			);
+		}
+
+		final var stringSerdes = Serdes.String();
+		registrations
+			.process(
+				timed(
+					namespaceMetrics.processor("notification"),
+					() -> new NotificationProcessor(
+						namespace, stores.summary(), stores.consumerIds(), stores.notification(), flushInterval,
+						namespaceMetrics
+					)
+				),
+				stores.summary(), stores.consumerIds(), stores.notification()
+			)
+			.to(notificationsTopic, Produced.with(stringSerdes, stringSerdes));
+	}
 
-		builder.stream(ackTopic, Consumed.with(stringSerdes, stringSerdes))
-			.filter((key, value) -> key != null && value != null)
+	private void buildAcks(final KStream<String, String> acks, final StoreNames stores, final QueueMetrics namespaceMetrics) {
+		acks
 			.peek((key, value) -> log.info(
 				"Received ack confirmation for pagination-id '{}' from consumer '{}'", key, value
 			))
-			.process(() -> new AckProcessor(
-				PAGE_STORE_NAME,
-				METADATA_STORE_NAME,
-				SUMMARY_STORE_NAME,
-				REGISTRATION_STORE_NAME,
-				ACK_STORE_NAME
-			));
+			.process(
+				timed(namespaceMetrics.processor("ack"), () -> new AckProcessor(
+					stores.page(),
+					stores.metadata(),
+					stores.summary(),
+					stores.registration(),
+					stores.ack(),
+					stores.consumerIds(),
+					stores.expiry(),
+					expiryPolicy,
+					namespaceMetrics
+				)),
+				stores.page(), stores.metadata(), stores.summary(), stores.registration(), stores.ack(),
+				stores.consumerIds(), stores.expiry()
+			);
+	}
+
+	// a queue declared co-partitioned must match the partition count of the other queues, otherwise its pages
+	// would be handled by tasks that do not own their pagination
+	private void verifyCoPartitioned(final Queue q) {
+		final int partitions;
+		try {
+			partitions = kafkaAdmin.describeTopics(q.input()).get(q.input()).partitions().size();
+		} catch (final org.apache.kafka.common.KafkaException | org.springframework.kafka.KafkaException e) {
+			// KafkaAdmin wraps a missing topic or an unreachable broker in the Spring one
+			log.warn("Could not verify the partitions of input '{}', processing it in place as declared", q.input(), e);
+			return;
+		}
+
+		if (partitions != q.repartitions()) {
+			throw new IllegalStateException("Input '" + q.input() + "' is declared co-partitioned but has " + partitions
+				+ " partitions instead of " + q.repartitions());
+		}
+		log.info("Input '{}' is keyed by pagination id, processing it in place", q.input());
 	}
 }
@@ -1,36 +1,133 @@
 package com.github.overz.configs;
 
+import com.github.overz.StoreLayout;
+import com.github.overz.StoreProfile;
+import com.github.overz.StoreTier;
 import com.github.overz.StreamService;
-import com.github.overz.dtos.Queue;
+import com.github.overz.deadletter.DeadLetterDeserializationHandler;
+import com.github.overz.deadletter.DeadLetterProcessingHandler;
+import com.github.overz.deadletter.DeadLetterProductionHandler;
+import com.github.overz.deadletter.DeadLetterPublisher;
+import com.github.overz.dtos.ExpiryPolicy;
+import com.github.overz.metrics.PaginationMetrics;
+import com.github.overz.query.PageQueryService;
 import com.github.overz.serdes.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.core.KafkaAdmin;
 
-import java.util.List;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
 
 @Configuration
 @EnableKafkaStreams
+@EnableConfigurationProperties(PaginationProperties.class)
 public class ApplicationConfig {
 
 	@Bean
 	public StreamService streamService(
-		final StreamsBuilder streamsBuilder
+		final StreamsBuilder streamsBuilder,
+		final StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+		final PaginationProperties properties,
+		@Value("${pagination.serdes.page:RAW}") final SerdeFormat pageFormat,
+		@Value("${pagination.serdes.metadata:KRYO}") final SerdeFormat metadataFormat,
+		@Value("${pagination.serdes.summary:KRYO}") final SerdeFormat summaryFormat,
+		@Value("${pagination.serdes.consumers:KRYO}") final SerdeFormat consumersFormat,
+		@Value("${pagination.ttl.open:PT24H}") final Duration openTtl,
+		@Value("${pagination.ttl.completed:PT72H}") final Duration completedTtl,
+		@Value("${pagination.ttl.registration:PT24H}") final Duration registrationTtl,
+		@Value("${pagination.ttl.sweep-interval:PT1M}") final Duration sweepInterval,
+		@Value("${pagination.ttl.max-sweep-size:1000}") final int maxSweepSize,
+		@Value("${pagination.stores.summary:CACHED}") final StoreTier summaryTier,
+		@Value("${pagination.stores.ack:CACHED}") final StoreTier ackTier,
+		@Value("${pagination.stores.registration:CACHED}") final StoreTier registrationTier,
+		@Value("${pagination.stores.layout:SEPARATE}") final StoreLayout layout,
+		final DeadLetterPublisher deadLetterPublisher,
+		final KafkaAdmin kafkaAdmin,
+		final PaginationMetrics paginationMetrics
 	) {
 		return new StreamService(
-			"pagination-consumers",
-			"pagination-ack",
+			properties.consumersTopic(),
+			properties.ackTopic(),
+			properties.notificationsTopic(),
 			streamsBuilder,
-			List.of(
-				new Queue("a", "b", 1),
-				new Queue("a1", "b1", 1),
-				new Queue("a2", "b2", 1)
-			),
-			new PageDataSerdes(new PageDataSerializer(), new PageDataDeserializer()),
-			new PageMetadataSerdes(new PageMetadataSerializer(), new PageMetadataDeserializer()),
-			new PaginationSummarySerdes(new PaginationSummarySerializer(), new PaginationSummaryDeserializer()),
-			new HashSetSerdes(new HashSetSerializer(), new HashSetDeserializer())
+			streamsBuilderFactoryBean.getStreamsConfiguration(),
+			properties.queues(),
+			PageDataSerdes.of(pageFormat),
+			PageMetadataSerdes.of(metadataFormat),
+			PaginationSummarySerdes.of(summaryFormat),
+			ConsumerSetSerdes.of(consumersFormat),
+			new ExpiryPolicy(openTtl, completedTtl, registrationTtl, sweepInterval, maxSweepSize),
+			deadLetterPublisher,
+			new StoreProfile(summaryTier, ackTier, registrationTier, layout),
+			properties.maxMessageSize(),
+			properties.maxPages(),
+			kafkaAdmin,
+			paginationMetrics
+		);
+	}
+
+	@Bean
+	public PaginationMetrics paginationMetrics(
+		final MeterRegistry meterRegistry,
+		final StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+		final ObjectProvider<StreamService> streamService
+	) {
+		// gauges are read on scrape, once the stream service has built the isolated instances
+		return new PaginationMetrics(
+			meterRegistry,
+			namespace -> Optional.ofNullable(streamService.getObject().isolatedStreams(namespace))
+				.orElseGet(streamsBuilderFactoryBean::getKafkaStreams)
+		);
+	}
+
+	@Bean
+	public DeadLetterPublisher deadLetterPublisher(
+		@Value("${spring.kafka.bootstrap-servers:localhost:9092}") final String bootstrapServers,
+		@Value("${pagination.dead-letter.topic:pagination-dead-letter}") final String defaultTopic,
+		@Value("${pagination.dead-letter.linger:PT0.1S}") final Duration linger
+	) {
+		return DeadLetterPublisher.create(bootstrapServers, linger, defaultTopic);
+	}
+
+	// the handlers are created by Kafka Streams, they find the publisher in the streams config
+	@Bean
+	public StreamsBuilderFactoryBeanConfigurer deadLetterConfigurer(final DeadLetterPublisher deadLetterPublisher) {
+		return factoryBean -> {
+			final var properties = new Properties();
+			properties.putAll(factoryBean.getStreamsConfiguration());
+			properties.put(DeadLetterPublisher.CONFIG, deadLetterPublisher);
+			properties.put(StreamsConfig.DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, DeadLetterDeserializationHandler.class);
+			properties.put(StreamsConfig.PROCESSING_EXCEPTION_HANDLER_CLASS_CONFIG, DeadLetterProcessingHandler.class);
+			properties.put(StreamsConfig.PRODUCTION_EXCEPTION_HANDLER_CLASS_CONFIG, DeadLetterProductionHandler.class);
+			factoryBean.setStreamsConfiguration(properties);
+		};
+	}
+
+	@Bean
+	public PageQueryService pageQueryService(
+		final StreamsBuilderFactoryBean streamsBuilderFactoryBean,
+		final StreamService streamService,
+		@Value("${spring.kafka.streams.properties.application.server:localhost:8080}") final String applicationServer
+	) {
+		// isolated queues have a Kafka Streams instance of their own
+		return new PageQueryService(
+			queue -> Optional.ofNullable(streamService.isolatedStreams(queue))
+				.orElseGet(streamsBuilderFactoryBean::getKafkaStreams),
+			HostInfo.buildFromEndpoint(applicationServer),
+			HttpClient.newHttpClient()
 		);
 	}
 }
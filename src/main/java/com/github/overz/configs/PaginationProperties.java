@@ -0,0 +1,35 @@
+package com.github.overz.configs;
+
+import com.github.overz.dtos.Queue;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+// Queues and topics of the pagination, bound from the pagination.* properties
+@ConfigurationProperties("pagination")
+public record PaginationProperties(
+	@DefaultValue("pagination-consumers") String consumersTopic,
+	@DefaultValue("pagination-ack") String ackTopic,
+	// completion notices for the registered consumers, none are sent without it
+	String notificationsTopic,
+	// limit to allow for headers and serialization overhead within the 1MB Kafka limit, queues can lower or raise it
+	@DefaultValue("921600") int maxMessageSize,
+	// highest page number accepted, the summary keeps a bit per page up to it
+	@DefaultValue("100000") int maxPages,
+	List<Queue> queues
+) {
+
+	public PaginationProperties {
+		if (maxMessageSize <= 0) {
+			throw new IllegalArgumentException("maxMessageSize must be greater than 0");
+		}
+		if (maxPages <= 0) {
+			throw new IllegalArgumentException("maxPages must be greater than 0");
+		}
+		if (queues == null || queues.isEmpty()) {
+			throw new IllegalArgumentException("at least one queue must be configured under pagination.queues");
+		}
+		queues = List.copyOf(queues);
+	}
+}
@@ -0,0 +1,135 @@
+package com.github.overz.configs;
+
+import com.github.overz.StreamService;
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+// Every store instance of the application shares one block cache and one write buffer manager, so the RocksDB
+// memory stays bounded whatever the number of tasks. Stores are then tuned by what they hold: large page values,
+// metadata read by pagination and small hot entries for summaries, acks, registrations and expiry.
+public class PaginationRocksDBConfigSetter implements RocksDBConfigSetter {
+	public static final String BLOCK_CACHE_SIZE_CONFIG = "pagination.rocksdb.block-cache-size";
+	public static final String WRITE_BUFFER_SIZE_CONFIG = "pagination.rocksdb.write-buffer-size";
+	// bytes of the pagination id used as prefix by the page and metadata stores, 0 disables the prefix filters. Only
+	// for pagination ids of a fixed length, UUIDs are 36: with shorter ids the fixed prefix takes in the page number
+	// and the prefix filters reject the "<paginationId>@" scans
+	public static final String PAGINATION_ID_LENGTH_CONFIG = "pagination.rocksdb.pagination-id-length";
+
+	private static final long DEFAULT_BLOCK_CACHE_SIZE = 256L * 1024 * 1024;
+	private static final long DEFAULT_WRITE_BUFFER_SIZE = 64L * 1024 * 1024;
+	private static final int DEFAULT_PAGINATION_ID_LENGTH = 0;
+	// index and filter blocks are kept in the high priority pool of the cache
+	private static final double INDEX_FILTER_BLOCK_RATIO = 0.2;
+	private static final double BLOOM_BITS_PER_KEY = 10;
+	private static final long MIN_BLOB_SIZE = 4 * 1024;
+
+	private static Cache cache;
+	private static WriteBufferManager writeBufferManager;
+
+	// Kafka Streams creates a setter per store instance, the filter is released with it
+	private BloomFilter filter;
+
+	private enum Profile {
+		PAGES(32 * 1024, 16L * 1024 * 1024),
+		METADATA(8 * 1024, 8L * 1024 * 1024),
+		HOT(4 * 1024, 4L * 1024 * 1024);
+
+		private final long blockSize;
+		private final long memtableSize;
+
+		Profile(final long blockSize, final long memtableSize) {
+			this.blockSize = blockSize;
+			this.memtableSize = memtableSize;
+		}
+
+		static Profile of(final String storeName) {
+			if (storeName.startsWith(StreamService.PAGE_STORE_NAME)) {
+				return PAGES;
+			}
+			if (storeName.startsWith(StreamService.METADATA_STORE_NAME)) {
+				return METADATA;
+			}
+			return HOT;
+		}
+	}
+
+	@Override
+	public void setConfig(final String storeName, final Options options, final Map<String, Object> configs) {
+		final var profile = Profile.of(storeName);
+		final var tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+		this.filter = new BloomFilter(BLOOM_BITS_PER_KEY, false);
+
+		tableConfig.setBlockCache(cache(configs));
+		tableConfig.setCacheIndexAndFilterBlocks(true);
+		tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+		tableConfig.setPinTopLevelIndexAndFilter(true);
+		tableConfig.setBlockSize(profile.blockSize);
+		tableConfig.setFilterPolicy(filter);
+		tableConfig.setWholeKeyFiltering(true);
+
+		options.setWriteBufferManager(writeBufferManager(configs));
+		options.setWriteBufferSize(profile.memtableSize);
+		options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+		options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+
+		// pages and metadata are only read by "<paginationId>@" prefix scans and by full key
+		final var paginationIdLength = intConfig(configs, PAGINATION_ID_LENGTH_CONFIG, DEFAULT_PAGINATION_ID_LENGTH);
+		if (profile != Profile.HOT && paginationIdLength > 0) {
+			options.useFixedLengthPrefixExtractor(paginationIdLength);
+			options.setMemtablePrefixBloomSizeRatio(0.1);
+		}
+
+		// page values stay out of the LSM tree, compactions only move the keys
+		if (profile == Profile.PAGES) {
+			options.setEnableBlobFiles(true);
+			options.setMinBlobSize(MIN_BLOB_SIZE);
+			options.setBlobCompressionType(CompressionType.ZSTD_COMPRESSION);
+			options.setEnableBlobGarbageCollection(true);
+		}
+
+		options.setTableFormatConfig(tableConfig);
+	}
+
+	@Override
+	public void close(final String storeName, final Options options) {
+		// the cache and write buffer manager are shared by every store instance, they live as long as the application
+		if (filter != null) {
+			filter.close();
+		}
+	}
+
+	private static synchronized Cache cache(final Map<String, Object> configs) {
+		if (cache == null) {
+			final var size = longConfig(configs, BLOCK_CACHE_SIZE_CONFIG, DEFAULT_BLOCK_CACHE_SIZE);
+			cache = new LRUCache(size, -1, false, INDEX_FILTER_BLOCK_RATIO);
+		}
+		return cache;
+	}
+
+	// memtables are charged against the block cache, the cache size bounds both
+	private static synchronized WriteBufferManager writeBufferManager(final Map<String, Object> configs) {
+		if (writeBufferManager == null) {
+			final var size = longConfig(configs, WRITE_BUFFER_SIZE_CONFIG, DEFAULT_WRITE_BUFFER_SIZE);
+			writeBufferManager = new WriteBufferManager(size, cache(configs));
+		}
+		return writeBufferManager;
+	}
+
+	private static long longConfig(final Map<String, Object> configs, final String key, final long defaultValue) {
+		final var value = configs.get(key);
+		return value != null ? Long.parseLong(value.toString()) : defaultValue;
+	}
+
+	private static int intConfig(final Map<String, Object> configs, final String key, final int defaultValue) {
+		final var value = configs.get(key);
+		return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+	}
+}
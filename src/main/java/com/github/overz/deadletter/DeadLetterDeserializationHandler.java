@@ -0,0 +1,29 @@
+package com.github.overz.deadletter;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.errors.DeserializationExceptionHandler;
+import org.apache.kafka.streams.errors.ErrorHandlerContext;
+
+import java.util.Map;
+
+// records the serdes cannot read go to the dead-letter topic as consumed, the partition moves on
+public class DeadLetterDeserializationHandler implements DeserializationExceptionHandler {
+	private DeadLetterPublisher publisher;
+
+	@Override
+	public void configure(final Map<String, ?> configs) {
+		this.publisher = DeadLetterPublisher.fromConfigs(configs);
+	}
+
+	@Override
+	public DeserializationHandlerResponse handle(
+		final ErrorHandlerContext context,
+		final ConsumerRecord<byte[], byte[]> record,
+		final Exception exception
+	) {
+		publisher.publish(
+			record.topic(), record.partition(), record.offset(), record.key(), record.value(), record.headers(), exception
+		);
+		return DeserializationHandlerResponse.CONTINUE;
+	}
+}
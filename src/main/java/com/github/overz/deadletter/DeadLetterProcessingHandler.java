@@ -0,0 +1,56 @@
+package com.github.overz.deadletter;
+
+import com.github.overz.dtos.PageData;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.errors.ErrorHandlerContext;
+import org.apache.kafka.streams.errors.ProcessingExceptionHandler;
+import org.apache.kafka.streams.processor.api.Record;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// a processor failing on a record, like a header the dtos reject, sends it to the dead-letter topic instead of
+// stopping the stream thread. Pages still carry the original key and value. Punctuators failing have no record, only
+// their exception is sent.
+@Slf4j
+public class DeadLetterProcessingHandler implements ProcessingExceptionHandler {
+	private DeadLetterPublisher publisher;
+
+	@Override
+	public void configure(final Map<String, ?> configs) {
+		this.publisher = DeadLetterPublisher.fromConfigs(configs);
+	}
+
+	@Override
+	public ProcessingHandlerResponse handle(
+		final ErrorHandlerContext context,
+		final Record<?, ?> record,
+		final Exception exception
+	) {
+		if (record == null) {
+			log.error("Punctuation of processor '{}' failed", context.processorNodeId(), exception);
+			publisher.publish(context.topic(), context.partition(), context.offset(), null, null, null, exception);
+			return ProcessingHandlerResponse.CONTINUE;
+		}
+
+		final byte[] key;
+		final byte[] value;
+		if (record.value() instanceof PageData page) {
+			key = page.key();
+			value = page.value();
+		} else {
+			key = bytes(record.key());
+			value = bytes(record.value());
+		}
+
+		publisher.publish(context.topic(), context.partition(), context.offset(), key, value, record.headers(), exception);
+		return ProcessingHandlerResponse.CONTINUE;
+	}
+
+	private static byte[] bytes(final Object value) {
+		if (value == null || value instanceof byte[]) {
+			return (byte[]) value;
+		}
+		return value.toString().getBytes(StandardCharsets.UTF_8);
+	}
+}
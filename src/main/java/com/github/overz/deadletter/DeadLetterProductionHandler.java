@@ -0,0 +1,43 @@
+package com.github.overz.deadletter;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.streams.errors.ErrorHandlerContext;
+import org.apache.kafka.streams.errors.ProductionExceptionHandler;
+
+import java.util.Map;
+
+// records the broker rejects, or the serdes cannot write, go to the dead-letter topic of the queue they came from
+public class DeadLetterProductionHandler implements ProductionExceptionHandler {
+	private DeadLetterPublisher publisher;
+
+	@Override
+	public void configure(final Map<String, ?> configs) {
+		this.publisher = DeadLetterPublisher.fromConfigs(configs);
+	}
+
+	@Override
+	public ProductionExceptionHandlerResponse handle(
+		final ErrorHandlerContext context,
+		final ProducerRecord<byte[], byte[]> record,
+		final Exception exception
+	) {
+		publisher.publish(
+			context.topic(), context.partition(), context.offset(), record.key(), record.value(), record.headers(), exception
+		);
+		return ProductionExceptionHandlerResponse.CONTINUE;
+	}
+
+	// the record never made it to bytes, only its headers can be kept
+	@Override
+	public ProductionExceptionHandlerResponse handleSerializationException(
+		final ErrorHandlerContext context,
+		final ProducerRecord record,
+		final Exception exception,
+		final SerializationExceptionOrigin origin
+	) {
+		publisher.publish(
+			context.topic(), context.partition(), context.offset(), null, null, record.headers(), exception
+		);
+		return ProductionExceptionHandlerResponse.CONTINUE;
+	}
+}
@@ -0,0 +1,147 @@
+package com.github.overz.deadletter;
+
+import com.github.overz.HeaderKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Publishes rejected records to the dead-letter topic of the queue they came from, with their original key, value
+// and headers plus the reason they were rejected. Sends are asynchronous and batched by the producer, so a rejected
+// record never waits on the broker in the stream thread.
+@Slf4j
+@RequiredArgsConstructor
+public class DeadLetterPublisher implements AutoCloseable {
+	// key of the streams config entry the exception handlers find the publisher under
+	public static final String CONFIG = "pagination.dead.letter.publisher";
+
+	private static final int BATCH_SIZE = 256 * 1024;
+
+	private final Producer<byte[], byte[]> producer;
+	private final String defaultTopic;
+	// dead-letter topic by input, repartition and output topic, registered while the topology is built
+	private final Map<String, String> topics = new ConcurrentHashMap<>();
+	// dead-letter topic of the inputs of pattern queues
+	private final Map<Pattern, String> patterns = new ConcurrentHashMap<>();
+
+	public static DeadLetterPublisher create(
+		final String bootstrapServers,
+		final Duration linger,
+		final String defaultTopic
+	) {
+		final var producer = new KafkaProducer<>(
+			Map.<String, Object>of(
+				ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+				ProducerConfig.CLIENT_ID_CONFIG, "pagination-dead-letter",
+				ProducerConfig.ACKS_CONFIG, "all",
+				ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+				ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis(),
+				ProducerConfig.BATCH_SIZE_CONFIG, BATCH_SIZE,
+				ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd"
+			),
+			new ByteArraySerializer(),
+			new ByteArraySerializer()
+		);
+		return new DeadLetterPublisher(producer, defaultTopic);
+	}
+
+	public void register(final String sourceTopic, final String deadLetterTopic) {
+		if (deadLetterTopic != null) {
+			topics.put(sourceTopic, deadLetterTopic);
+		}
+	}
+
+	public void register(final Pattern sourcePattern, final String deadLetterTopic) {
+		if (deadLetterTopic != null) {
+			patterns.put(sourcePattern, deadLetterTopic);
+		}
+	}
+
+	public String topicFor(final String sourceTopic) {
+		if (sourceTopic == null) {
+			return defaultTopic;
+		}
+
+		final var topic = topics.get(sourceTopic);
+		if (topic != null) {
+			return topic;
+		}
+
+		// repartition topics are registered by name, the topic is prefixed with the application id
+		for (final var entry : topics.entrySet()) {
+			if (sourceTopic.endsWith("-" + entry.getKey() + "-repartition")) {
+				return entry.getValue();
+			}
+		}
+		for (final var entry : patterns.entrySet()) {
+			if (entry.getKey().matcher(sourceTopic).matches()) {
+				return entry.getValue();
+			}
+		}
+		return defaultTopic;
+	}
+
+	public void publish(
+		final String sourceTopic,
+		final int partition,
+		final long offset,
+		final byte[] key,
+		final byte[] value,
+		final Headers headers,
+		final Throwable reason
+	) {
+		final var topic = topicFor(sourceTopic);
+		final var deadLetterHeaders = new RecordHeaders(headers != null ? headers.toArray() : null);
+		deadLetterHeaders.add(HeaderKey.DEAD_LETTER_REASON, text(reason(reason)));
+		// punctuations have no source record, their topic is null and their partition and offset -1
+		if (sourceTopic != null) {
+			deadLetterHeaders.add(HeaderKey.DEAD_LETTER_TOPIC, text(sourceTopic));
+		}
+		if (partition >= 0) {
+			deadLetterHeaders.add(HeaderKey.DEAD_LETTER_PARTITION, text(Integer.toString(partition)));
+		}
+		if (offset >= 0) {
+			deadLetterHeaders.add(HeaderKey.DEAD_LETTER_OFFSET, text(Long.toString(offset)));
+		}
+
+		log.warn("Sending record at {}-{}@{} to dead-letter topic '{}': {}", sourceTopic, partition, offset, topic, reason(reason));
+		producer.send(new ProducerRecord<>(topic, null, key, value, deadLetterHeaders), (metadata, e) -> {
+			if (e != null) {
+				log.error("Failed to send record at {}-{}@{} to dead-letter topic '{}'", sourceTopic, partition, offset, topic, e);
+			}
+		});
+	}
+
+	@Override
+	public void close() {
+		producer.close();
+	}
+
+	private static String reason(final Throwable reason) {
+		final var message = reason.getMessage();
+		return message != null ? reason.getClass().getName() + ": " + message : reason.getClass().getName();
+	}
+
+	private static byte[] text(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	static DeadLetterPublisher fromConfigs(final Map<String, ?> configs) {
+		final var publisher = configs.get(CONFIG);
+		if (!(publisher instanceof DeadLetterPublisher deadLetterPublisher)) {
+			throw new IllegalStateException("'" + CONFIG + "' must be set to the DeadLetterPublisher instance");
+		}
+		return deadLetterPublisher;
+	}
+}
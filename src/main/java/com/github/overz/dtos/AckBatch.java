@@ -0,0 +1,54 @@
+package com.github.overz.dtos;
+
+import com.github.overz.Mappers;
+import lombok.Builder;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+import org.apache.kafka.streams.KeyValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Acks of one consumer for many paginations in a single record, sent as a JSON object on the ack topic next to the
+// single acks keyed by pagination id with the consumer id as value
+@With
+@Builder
+@Jacksonized
+public record AckBatch(
+	String consumerId,
+	List<String> paginationIds
+) {
+
+	public AckBatch {
+		if (consumerId == null || consumerId.isEmpty()) {
+			throw new IllegalArgumentException("consumerId cannot be null or empty");
+		}
+		if (paginationIds == null) {
+			paginationIds = List.of();
+		}
+	}
+
+	public static boolean isBatch(final String value) {
+		return value.startsWith("{");
+	}
+
+	public static AckBatch parse(final String value) {
+		try {
+			return Mappers.json().readValue(value.getBytes(StandardCharsets.UTF_8), AckBatch.class);
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Invalid ack batch", e);
+		}
+	}
+
+	// one single ack per pagination, keyed by pagination id
+	public List<KeyValue<String, String>> acks() {
+		final var acks = new ArrayList<KeyValue<String, String>>(paginationIds.size());
+		for (final var paginationId : paginationIds) {
+			acks.add(KeyValue.pair(paginationId, consumerId));
+		}
+		return acks;
+	}
+}
@@ -0,0 +1,39 @@
+package com.github.overz.dtos;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.overz.Mappers;
+import lombok.Builder;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Paginations completed for one consumer since the previous notice, sent as a JSON object keyed by consumer id on
+// the notifications topic. It has the shape of an AckBatch, a consumer can send it back on the ack topic once it has
+// read every pagination of it, with the QUEUE header the notices of a named namespace carry.
+@With
+@Builder
+@Jacksonized
+public record CompletionNotice(
+	String consumerId,
+	List<String> paginationIds
+) {
+
+	public CompletionNotice {
+		if (consumerId == null || consumerId.isEmpty()) {
+			throw new IllegalArgumentException("consumerId cannot be null or empty");
+		}
+		if (paginationIds == null) {
+			paginationIds = List.of();
+		}
+	}
+
+	public String toJson() {
+		try {
+			return Mappers.json().writeValueAsString(this);
+		} catch (final JsonProcessingException e) {
+			throw new UncheckedIOException("Invalid completion notice", e);
+		}
+	}
+}
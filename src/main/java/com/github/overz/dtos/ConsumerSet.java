@@ -0,0 +1,90 @@
+package com.github.overz.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Set;
+
+// Consumers registered for, or acked, a pagination. Bit n is set for the consumer the task dictionary gave index n,
+// consumer ids read from sets stored before the dictionary are kept as is until they are resolved.
+@With
+@Builder
+@Jacksonized
+public record ConsumerSet(
+	long[] bits,
+	Set<String> legacy
+) implements Serializable {
+
+	public ConsumerSet {
+		if (bits == null) {
+			bits = new long[0];
+		}
+		if (legacy == null) {
+			legacy = Set.of();
+		}
+	}
+
+	public static ConsumerSet empty() {
+		return new ConsumerSet(new long[0], Set.of());
+	}
+
+	public static ConsumerSet ofLegacy(final Set<String> consumerIds) {
+		return new ConsumerSet(new long[0], consumerIds);
+	}
+
+	@JsonIgnore
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int size() {
+		var size = legacy.size();
+		for (final var word : bits) {
+			size += Long.bitCount(word);
+		}
+		return size;
+	}
+
+	public boolean contains(final int index) {
+		final var word = index >>> 6;
+		return word < bits.length && (bits[word] & (1L << index)) != 0;
+	}
+
+	public ConsumerSet with(final int index) {
+		if (contains(index)) {
+			return this;
+		}
+
+		final var word = index >>> 6;
+		final var updatedBits = Arrays.copyOf(bits, Math.max(bits.length, word + 1));
+		updatedBits[word] |= 1L << index;
+		return withBits(updatedBits);
+	}
+
+	// indexes of the set bits, in ascending order
+	public int[] indexes() {
+		final var indexes = new int[size() - legacy.size()];
+		var i = 0;
+		for (int word = 0; word < bits.length; word++) {
+			for (var remaining = bits[word]; remaining != 0; remaining &= remaining - 1) {
+				indexes[i++] = (word << 6) + Long.numberOfTrailingZeros(remaining);
+			}
+		}
+		return indexes;
+	}
+
+	// both sets must be resolved, legacy ids are not compared
+	public boolean containsAll(final ConsumerSet other) {
+		for (int word = 0; word < other.bits.length; word++) {
+			final var mine = word < bits.length ? bits[word] : 0L;
+			if ((other.bits[word] & ~mine) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,13 @@
+package com.github.overz.dtos;
+
+public enum ExpiryKind {
+	// pagination whose last page never arrived
+	OPEN,
+	// pagination completed but not acked by every registered consumer
+	COMPLETED,
+	// consumer registered for a pagination that never started
+	REGISTRATION,
+	// pagination acked by every registered consumer, reclaimed by the next sweep
+	ACKED,
+	;
+}
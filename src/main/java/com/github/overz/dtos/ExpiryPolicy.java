@@ -0,0 +1,46 @@
+package com.github.overz.dtos;
+
+import lombok.Builder;
+import lombok.With;
+import lombok.extern.jackson.Jacksonized;
+
+import java.time.Duration;
+
+@With
+@Builder
+@Jacksonized
+public record ExpiryPolicy(
+	Duration open,
+	Duration completed,
+	Duration registration,
+	Duration sweepInterval,
+	Integer maxSweepSize
+) {
+
+	public ExpiryPolicy {
+		if (open == null || open.isNegative() || open.isZero()) {
+			throw new IllegalArgumentException("open must be greater than 0");
+		}
+		if (completed == null || completed.isNegative() || completed.isZero()) {
+			throw new IllegalArgumentException("completed must be greater than 0");
+		}
+		if (registration == null || registration.isNegative() || registration.isZero()) {
+			throw new IllegalArgumentException("registration must be greater than 0");
+		}
+		if (sweepInterval == null || sweepInterval.isNegative() || sweepInterval.isZero()) {
+			throw new IllegalArgumentException("sweepInterval must be greater than 0");
+		}
+		if (maxSweepSize == null || maxSweepSize <= 0) {
+			throw new IllegalArgumentException("maxSweepSize must be greater than 0");
+		}
+	}
+
+	public long ttl(final ExpiryKind kind) {
+		return switch (kind) {
+			case OPEN -> open.toMillis();
+			case COMPLETED -> completed.toMillis();
+			case REGISTRATION -> registration.toMillis();
+			case ACKED -> 0;
+		};
+	}
+}
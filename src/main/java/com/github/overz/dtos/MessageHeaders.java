@@ -1,5 +1,6 @@
 package com.github.overz.dtos;
 
+import com.github.overz.HeaderCodec;
 import lombok.Builder;
 import lombok.With;
 import lombok.extern.jackson.Jacksonized;
@@ -19,7 +20,7 @@ public record MessageHeaders(
 	String messageId,
 	String compositeKey,
 	String topic,
-	int offset,
+	long offset,
 	int partition,
 	Instant messageTime,
 	int totalElements,
@@ -28,7 +29,10 @@ public record MessageHeaders(
 	int keySize,
 	int valueSize,
 	int originalKeySize,
-	int originalValueSize
+	int originalValueSize,
+	// oversized records are split in partCount parts, 0 when the record was not split
+	int partIndex,
+	int partCount
 ) implements Serializable {
 
 	@SuppressWarnings({ "java:S3776" })
@@ -78,16 +82,32 @@ public record MessageHeaders(
 		if (originalValueSize <= -1) {
 			throw new IllegalArgumentException("originalValueSize must be greater than -1");
 		}
+		if (partCount <= -1) {
+			throw new IllegalArgumentException("partCount must be greater than -1");
+		}
+		if (partIndex <= -1 || (partCount > 0 && partIndex >= partCount)) {
+			throw new IllegalArgumentException("partIndex must be between 0 and partCount");
+		}
+	}
+
+	public boolean isPart() {
+		return partCount > 1;
 	}
 
 	public static MessageHeaders fromHeaders(final Headers headers) {
+		final var packed = headers.lastHeader(PAGINATION);
+		if (packed != null) {
+			return HeaderCodec.decode(packed.value());
+		}
+
+		// records enriched before the packed header existed
 		return MessageHeaders.builder()
 			.origin(string(headers, ORIGIN))
 			.paginationId(string(headers, PAGINATION_ID))
 			.messageId(string(headers, MESSAGE_ID))
 			.compositeKey(string(headers, COMPOSITE_KEY))
 			.topic(string(headers, TOPIC))
-			.offset(integer(headers, OFFSET))
+			.offset(longValue(headers, OFFSET))
 			.partition(integer(headers, PARTITION))
 			.messageTime(instant(headers, MESSAGE_TIME))
 			.totalElements(integer(headers, TOTAL_ELEMENTS))
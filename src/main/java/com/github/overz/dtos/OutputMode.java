@@ -0,0 +1,11 @@
+package com.github.overz.dtos;
+
+public enum OutputMode {
+	// the summary is published once every page has arrived
+	SUMMARY,
+	// pages are published in page order as soon as every previous page has arrived
+	STREAMING,
+	// every page merged and zstd compressed into ordered chunks, published once every page has arrived
+	MERGED,
+	;
+}
@@ -11,6 +11,12 @@ import java.io.Serializable;
 @Jacksonized
 public record PageData(
 	byte[] key,
-	byte[] value
+	byte[] value,
+	// set when the page store holds the metadata too, see StoreLayout.COMBINED
+	PageMetadata metadata
 ) implements Serializable {
+
+	public PageData(final byte[] key, final byte[] value) {
+		this(key, value, null);
+	}
 }
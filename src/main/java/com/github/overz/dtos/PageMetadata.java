@@ -13,7 +13,7 @@ public record PageMetadata(
 	String topic,
 	String messageId,
 	Integer pageNumber,
-	Integer offset,
+	Long offset,
 	Integer partition,
 	Integer keySize,
 	Integer valueSize
@@ -42,4 +42,16 @@ public record PageMetadata(
 			throw new IllegalArgumentException("valueSize cannot be null or empty");
 		}
 	}
+
+	public static PageMetadata fromHeaders(final MessageHeaders headers) {
+		return new PageMetadata(
+			headers.topic(),
+			headers.messageId(),
+			headers.pageNumber(),
+			headers.offset(),
+			headers.partition(),
+			headers.keySize(),
+			headers.valueSize()
+		);
+	}
 }
@@ -1,22 +1,36 @@
 package com.github.overz.dtos;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.overz.PaginationKeys;
 import lombok.Builder;
 import lombok.With;
 import lombok.extern.jackson.Jacksonized;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @With
 @Builder
 @Jacksonized
 public record PaginationSummary(
+	String paginationId,
 	int totalPages,
 	int totalElements,
-	int totalSize,
+	long totalSize,
+	int receivedPages,
+	// pages already published by the STREAMING output mode, always a contiguous prefix
+	int emittedPages,
 	PaginationStatus status,
-	List<String> references
+	// bit n is set once page n has been received, the references are derived from it
+	long[] pages,
+	// part bitmask of the split pages still missing parts, keyed by page number
+	Map<Integer, Long> partialPages,
+	// timestamp of the first page in epoch millis, 0 for summaries stored before it was kept
+	long openedAt
 ) implements Serializable {
 
 	public PaginationSummary {
@@ -24,28 +38,150 @@ public record PaginationSummary(
 		if (totalSize <= -1) {
 			throw new IllegalArgumentException("totalSize must be positive");
 		}
-
-		if (references.isEmpty()) {
-			throw new IllegalArgumentException("pages cannot be empty");
+		if (receivedPages <= -1) {
+			throw new IllegalArgumentException("receivedPages must be positive");
+		}
+		if (emittedPages <= -1) {
+			throw new IllegalArgumentException("emittedPages must be positive");
+		}
+		if (pages == null) {
+			pages = new long[0];
+		}
+		if (partialPages == null) {
+			partialPages = Map.of();
 		}
 	}
 
 	public static PaginationSummary newSummary(final MessageHeaders headers) {
-		final var refs = new ArrayList<String>();
-		refs.add(headers.compositeKey());
-		
 		// If this first message is the last page (has totalElements), we know the totals.
 		// Otherwise, we initialize with -1 (unknown).
-		final boolean isLastPage = headers.totalElements() > 0;
-		final int totalPages = isLastPage ? headers.pageNumber() : -1;
-		final int totalElements = isLastPage ? headers.totalElements() : -1;
-
 		return PaginationSummary.builder()
-			.totalPages(totalPages)
-			.totalElements(totalElements)
-			.totalSize(headers.keySize() + headers.valueSize())
+			.paginationId(headers.paginationId())
+			.totalPages(-1)
+			.totalElements(-1)
+			.totalSize(0)
+			.receivedPages(0)
+			.emittedPages(0)
 			.status(PaginationStatus.OPEN)
-			.references(refs)
-			.build();
+			.pages(new long[0])
+			.partialPages(Map.of())
+			.openedAt(headers.messageTime().toEpochMilli())
+			.build()
+			.addPage(headers);
+	}
+
+	public boolean contains(final int pageNumber) {
+		final var word = pageNumber >>> 6;
+		return word < pages.length && (pages[word] & (1L << pageNumber)) != 0;
+	}
+
+	// a part is contained once it, or the whole page it belongs to, has been received
+	public boolean contains(final MessageHeaders headers) {
+		if (contains(headers.pageNumber())) {
+			return true;
+		}
+		if (!headers.isPart()) {
+			return false;
+		}
+
+		final var parts = partialPages.get(headers.pageNumber());
+		return parts != null && (parts & (1L << headers.partIndex())) != 0;
+	}
+
+	// redelivered pages are ignored, callers can check contains() to skip the store write altogether
+	public PaginationSummary addPage(final MessageHeaders headers) {
+		if (contains(headers)) {
+			return this;
+		}
+
+		final var pageNumber = headers.pageNumber();
+		var summary = withTotalSize(totalSize + headers.keySize() + headers.valueSize());
+
+		// a split page only counts as received once every part is in
+		if (headers.isPart()) {
+			final var parts = partialPages.getOrDefault(pageNumber, 0L) | (1L << headers.partIndex());
+			final var updatedPartialPages = new HashMap<>(partialPages);
+			if (Long.bitCount(parts) < headers.partCount()) {
+				updatedPartialPages.put(pageNumber, parts);
+				return summary.withPartialPages(updatedPartialPages);
+			}
+			updatedPartialPages.remove(pageNumber);
+			summary = summary.withPartialPages(updatedPartialPages);
+		}
+
+		final var word = pageNumber >>> 6;
+		final var updatedPages = Arrays.copyOf(pages, Math.max(pages.length, word + 1));
+		updatedPages[word] |= 1L << pageNumber;
+
+		summary = summary.withPages(updatedPages)
+			.withReceivedPages(receivedPages + 1);
+
+		// If this message has the total count (is the last page), update the summary totals
+		if (headers.totalElements() > 0) {
+			summary = summary.withTotalElements(headers.totalElements())
+				.withTotalPages(headers.pageNumber());
+		}
+
+		return summary;
+	}
+
+	public PaginationSummary updateStatus() {
+		// We can only be completed if we know the total pages (totalPages != -1)
+		// AND we have collected exactly that many pages.
+		final boolean isTotalKnown = totalPages != -1;
+		final boolean allPagesReceived = isTotalKnown && receivedPages == totalPages;
+
+		final var status = allPagesReceived ?
+			PaginationStatus.COMPLETED :
+			PaginationStatus.OPEN;
+
+		return withStatus(status);
+	}
+
+	// kept in the published summary so consumers can still address pages directly. A page split in parts is stored
+	// under its part keys instead, its reference does not address it: split pages are only read through the page
+	// fetch API, which reassembles them
+	@JsonProperty("references")
+	public List<String> references() {
+		final var references = new ArrayList<String>(receivedPages);
+		for (int word = 0; word < pages.length; word++) {
+			var bits = pages[word];
+			while (bits != 0) {
+				final var bit = Long.numberOfTrailingZeros(bits);
+				references.add(PaginationKeys.composite(paginationId, (word << 6) + bit));
+				bits &= bits - 1;
+			}
+		}
+		return references;
+	}
+
+	public static class PaginationSummaryBuilder {
+		// summaries stored before the bitmap only kept the list of references, the pagination id and the pages with
+		// a page number are taken back from them so the prefix scans of the cleanup and the emitter find the pages
+		@JsonProperty("references")
+		public PaginationSummaryBuilder legacyReferences(final List<String> references) {
+			if (references == null || references.isEmpty()) {
+				return this;
+			}
+
+			this.receivedPages = Math.max(this.receivedPages, references.size());
+			if (this.paginationId == null) {
+				this.paginationId = PaginationKeys.paginationId(references.getFirst());
+			}
+			var updatedPages = this.pages != null ? this.pages.clone() : new long[0];
+			for (final var reference : references) {
+				if (!PaginationKeys.hasPageNumber(reference)) {
+					continue;
+				}
+				final var pageNumber = PaginationKeys.pageNumber(reference);
+				final var word = pageNumber >>> 6;
+				if (word >= updatedPages.length) {
+					updatedPages = Arrays.copyOf(updatedPages, word + 1);
+				}
+				updatedPages[word] |= 1L << pageNumber;
+			}
+			this.pages = updatedPages;
+			return this;
+		}
 	}
 }
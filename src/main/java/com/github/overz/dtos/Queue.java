@@ -1,5 +1,7 @@
 package com.github.overz.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.overz.StoreProfile;
 import lombok.Builder;
 import lombok.With;
 import lombok.extern.jackson.Jacksonized;
@@ -8,14 +10,42 @@ import lombok.extern.jackson.Jacksonized;
 @Builder
 @Jacksonized
 public record Queue(
+	// store namespace, queues without a name share the default stores
+	String name,
 	String input,
+	// regex of the inputs, topics created later that match it are picked up without a redeploy
+	String inputPattern,
+	// topic name or template, {input} is replaced by the input the pagination came from
 	String output,
-	Integer repartitions
+	Integer repartitions,
+	// page, metadata and summary handled by a single processor instead of three chained ones
+	Boolean fused,
+	OutputMode outputMode,
+	// rejected records of the queue, the default dead-letter topic when null
+	String deadLetterTopic,
+	// producers key the input by pagination id and it has repartitions partitions, pages are processed in place
+	Boolean coPartitioned,
+	// stream threads of a Kafka Streams instance of its own, the queue shares the application's when null
+	Integer threads,
+	// largest record published, bigger records are split, the application's limit when null
+	Integer maxMessageSize,
+	// tiers and layout of the namespace's stores, set on its first queue
+	StoreProfile stores
 ) {
+	public static final String INPUT_PLACEHOLDER = "{input}";
 
 	public Queue {
-		if (input == null || input.isBlank()) {
-			throw new IllegalArgumentException("input cannot be null or blank");
+		if (name != null && name.isBlank()) {
+			throw new IllegalArgumentException("name cannot be blank");
+		}
+		if (threads != null && (threads <= 0 || name == null)) {
+			throw new IllegalArgumentException("threads must be greater than 0 and set on a named queue");
+		}
+		if ((input == null || input.isBlank()) == (inputPattern == null || inputPattern.isBlank())) {
+			throw new IllegalArgumentException("either input or inputPattern must be set");
+		}
+		if (inputPattern != null && (name == null || Boolean.TRUE.equals(coPartitioned))) {
+			throw new IllegalArgumentException("inputPattern must be set on a named queue that is not co-partitioned");
 		}
 		if (output == null || output.isBlank()) {
 			throw new IllegalArgumentException("output cannot be null or blank");
@@ -23,5 +53,32 @@ public record Queue(
 		if (repartitions == null || repartitions <= 0) {
 			throw new IllegalArgumentException("repartitions must be greater than 0");
 		}
+		if (maxMessageSize != null && maxMessageSize <= 0) {
+			throw new IllegalArgumentException("maxMessageSize must be greater than 0");
+		}
+		fused = fused != null && fused;
+		outputMode = outputMode != null ? outputMode : OutputMode.SUMMARY;
+		coPartitioned = coPartitioned != null && coPartitioned;
+	}
+
+	@JsonIgnore
+	public boolean isIsolated() {
+		return threads != null;
+	}
+
+	@JsonIgnore
+	public boolean isPattern() {
+		return inputPattern != null;
+	}
+
+	// names the queue's repartition topic, pattern queues have no single input to name it after
+	@JsonIgnore
+	public String source() {
+		return isPattern() ? name : input;
+	}
+
+	@JsonIgnore
+	public boolean isOutputTemplate() {
+		return output.contains(INPUT_PLACEHOLDER);
 	}
 }
@@ -0,0 +1,71 @@
+package com.github.overz.metrics;
+
+import com.github.overz.StreamService;
+import com.github.overz.dtos.Queue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Micrometer meters of the pagination pipeline, exported by the actuator. Pipeline meters are tagged with the queue
+// name, or its input when unnamed, the meters of the shared stores, registrations and acks with the namespace,
+// "default" for the unnamed queues. Store gauges are read through interactive queries when the registry is scraped.
+@RequiredArgsConstructor
+public class PaginationMetrics {
+	static final String QUEUE_TAG = "queue";
+	private static final String DEFAULT_NAMESPACE = "default";
+
+	private final MeterRegistry registry;
+	// Kafka Streams instance running a namespace's stores
+	private final Function<String, KafkaStreams> streams;
+	private final Map<String, QueueMetrics> queues = new ConcurrentHashMap<>();
+
+	public QueueMetrics queue(final Queue queue) {
+		return queue(queue.name() != null ? queue.name() : queue.input());
+	}
+
+	public QueueMetrics namespace(final String namespace) {
+		return queue(namespace != null ? namespace : DEFAULT_NAMESPACE);
+	}
+
+	public void stores(final String namespace, final StreamService.StoreNames stores) {
+		final var tag = namespace != null ? namespace : DEFAULT_NAMESPACE;
+		for (final var store : stores.all()) {
+			Gauge.builder("pagination.store.entries", () -> entries(namespace, store))
+				.description("Approximate number of entries of a store on this instance")
+				.tag(QUEUE_TAG, tag)
+				.tag("store", store)
+				.register(registry);
+		}
+		Gauge.builder("pagination.open", () -> entries(namespace, stores.summary()))
+			.description("Approximate number of paginations held on this instance, open or completed and waiting for acks")
+			.tag(QUEUE_TAG, tag)
+			.register(registry);
+	}
+
+	private QueueMetrics queue(final String queue) {
+		return queues.computeIfAbsent(queue, name -> new QueueMetrics(registry, name));
+	}
+
+	// NaN while the instance is not running or its stores are migrating
+	private double entries(final String namespace, final String store) {
+		final var instance = streams.apply(namespace);
+		if (instance == null || instance.state() != KafkaStreams.State.RUNNING) {
+			return Double.NaN;
+		}
+
+		try {
+			return instance.store(StoreQueryParameters.fromNameAndType(store, QueryableStoreTypes.<String, Object>keyValueStore()))
+				.approximateNumEntries();
+		} catch (final InvalidStateStoreException e) {
+			return Double.NaN;
+		}
+	}
+}
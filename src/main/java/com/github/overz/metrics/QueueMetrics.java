@@ -0,0 +1,88 @@
+package com.github.overz.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Meters of one queue, created up front so the stream threads only increment counters and update timers
+public class QueueMetrics {
+	private static final Duration MAX_COMPLETION = Duration.ofHours(1);
+
+	private final MeterRegistry registry;
+	private final String queue;
+	private final Counter pages;
+	private final Counter bytes;
+	private final Counter dropped;
+	private final Counter notices;
+	private final Timer completion;
+	private final Timer cleanup;
+	private final Map<String, Timer> processors = new ConcurrentHashMap<>();
+
+	QueueMetrics(final MeterRegistry registry, final String queue) {
+		this.registry = registry;
+		this.queue = queue;
+		this.pages = Counter.builder("pagination.pages")
+			.description("Records read from the queue inputs")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.register(registry);
+		this.bytes = Counter.builder("pagination.bytes")
+			.description("Key and value bytes read from the queue inputs")
+			.baseUnit("bytes")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.register(registry);
+		this.dropped = Counter.builder("pagination.validator.dropped")
+			.description("Records too large to be split, sent to the dead-letter topic")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.register(registry);
+		this.notices = Counter.builder("pagination.notifications")
+			.description("Completion notices sent to the registered consumers, one per consumer and flush")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.register(registry);
+		this.completion = Timer.builder("pagination.completion.latency")
+			.description("Time from the first page of a pagination to its completion")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.publishPercentileHistogram()
+			.maximumExpectedValue(MAX_COMPLETION)
+			.register(registry);
+		this.cleanup = Timer.builder("pagination.cleanup.latency")
+			.description("Time from the last ack of a pagination to the removal of its entries")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.publishPercentileHistogram()
+			.register(registry);
+	}
+
+	public void received(final byte[] key, final byte[] value) {
+		pages.increment();
+		bytes.increment((key != null ? key.length : 0) + (value != null ? value.length : 0));
+	}
+
+	public void dropped() {
+		dropped.increment();
+	}
+
+	public void notified(final int consumers) {
+		notices.increment(consumers);
+	}
+
+	public void completed(final long latencyMs) {
+		completion.record(latencyMs, TimeUnit.MILLISECONDS);
+	}
+
+	public void cleanedUp(final long latencyMs) {
+		cleanup.record(latencyMs, TimeUnit.MILLISECONDS);
+	}
+
+	// resolved once per processor instance, on init
+	public Timer processor(final String processor) {
+		return processors.computeIfAbsent(processor, name -> Timer.builder("pagination.processor.latency")
+			.description("Time a processor spends on a record, without the timed processors it forwards to")
+			.tag(PaginationMetrics.QUEUE_TAG, queue)
+			.tag("processor", name)
+			.register(registry));
+	}
+}
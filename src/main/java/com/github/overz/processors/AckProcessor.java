@@ -1,19 +1,22 @@
 package com.github.overz.processors;
 
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.ExpiryKind;
+import com.github.overz.dtos.ExpiryPolicy;
 import com.github.overz.dtos.PageData;
 import com.github.overz.dtos.PageMetadata;
 import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.metrics.QueueMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.processor.PunctuationType;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
 
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -23,65 +26,83 @@ public class AckProcessor implements Processor<String, String, Void, Void> {
 	private final String summaryStorageName;
 	private final String consumersStorageName;
 	private final String ackStorageName;
+	private final String consumerIdStorageName;
+	private final String expiryStorageName;
+	private final ExpiryPolicy expiryPolicy;
+	private final QueueMetrics metrics;
 
-	private KeyValueStore<String, PageData> pageStorage;
-	private KeyValueStore<String, PageMetadata> metadataStorage;
-	private KeyValueStore<String, PaginationSummary> summaryStorage;
-	private KeyValueStore<String, Set<String>> ackStorage;
-	private KeyValueStore<String, Set<String>> consumersStorage;
+	private ProcessorContext<Void, Void> ctx;
+	private KeyValueStore<String, ConsumerSet> ackStorage;
+	private KeyValueStore<String, ConsumerSet> consumersStorage;
+	private ConsumerDictionary dictionary;
+	private ExpiryIndex expiryIndex;
+	private ExpirySweeper sweeper;
 
 	@Override
 	public void init(final ProcessorContext<Void, Void> context) {
-		this.pageStorage = Objects.requireNonNull(context.getStateStore(pageStorageName), "pageStorage");
-		this.metadataStorage = Objects.requireNonNull(context.getStateStore(metadataStorageName), "metadataStorage");
-		this.summaryStorage = Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
+		this.ctx = Objects.requireNonNull(context, "context");
+		final KeyValueStore<String, PageData> pageStorage =
+			Objects.requireNonNull(context.getStateStore(pageStorageName), "pageStorage");
+		final KeyValueStore<String, PageMetadata> metadataStorage =
+			Objects.requireNonNull(context.getStateStore(metadataStorageName), "metadataStorage");
+		final KeyValueStore<String, PaginationSummary> summaryStorage =
+			Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
 		this.consumersStorage = Objects.requireNonNull(context.getStateStore(consumersStorageName), "consumersStorage");
 		this.ackStorage = Objects.requireNonNull(context.getStateStore(ackStorageName), "ackStorage");
+		this.dictionary = new ConsumerDictionary(
+			Objects.requireNonNull(context.getStateStore(consumerIdStorageName), "consumerIdStorage")
+		);
+		this.expiryIndex = new ExpiryIndex(
+			Objects.requireNonNull(context.getStateStore(expiryStorageName), "expiryStorage"), expiryPolicy
+		);
+		final var cleaner = new PaginationCleaner(
+			pageStorage, metadataStorage, summaryStorage, consumersStorage, ackStorage, expiryIndex
+		);
+
+		// the ack processor is connected to every store of the task, so it also owns the expiry sweep
+		this.sweeper = new ExpirySweeper(
+			expiryIndex, cleaner, expiryPolicy, context.metrics(), context.taskId().toString(), metrics
+		);
+		context.schedule(expiryPolicy.sweepInterval(), PunctuationType.WALL_CLOCK_TIME, sweeper);
 	}
 
 	@Override
 	public void process(final Record<String, String> data) {
-		final var acks = Optional.ofNullable(ackStorage.get(data.key())).orElse(new HashSet<>());
-		acks.add(data.value());
-		ackStorage.put(data.key(), acks);
+		final var stored = ackStorage.get(data.key());
+		final var acks = dictionary.resolve(Optional.ofNullable(stored).orElse(ConsumerSet.empty()))
+			.with(dictionary.indexOf(data.value()));
+		if (acks != stored) {
+			ackStorage.put(data.key(), acks);
+		}
+
+		// an ack with no registration or pages has no deadline yet, it gets the registration one so the sweep reclaims it
+		if (stored == null && !expiryIndex.contains(data.key())) {
+			expiryIndex.schedule(ExpiryKind.REGISTRATION, data.key(), ctx.currentSystemTimeMs());
+		}
 
-		final var consumers = consumersStorage.get(data.key());
+		final var consumers = Optional.ofNullable(consumersStorage.get(data.key()))
+			.map(dictionary::resolve)
+			.orElse(null);
 
 		if (consumers == null || consumers.isEmpty()) {
 			log.warn("Received an ack for paginationId='{}' but no consumers are registered for it. Ignoring.", data.key());
 			return;
 		}
 
-		if (consumers.equals(acks)) {
-			log.info("All registered consumers have sent an ack for paginationId='{}'. Initiating cleanup.", data.key());
-			cleanup(data.key());
+		// the deletions are left to the next sweep, which writes those of every acked pagination in shared batches
+		if (acks.containsAll(consumers)) {
+			log.info("All registered consumers have sent an ack for paginationId='{}'. Scheduling cleanup.", data.key());
+			expiryIndex.schedule(ExpiryKind.ACKED, data.key(), ctx.currentSystemTimeMs());
 		} else {
-			log.debug("Still waiting for acks for paginationId='{}'. Received: {}, Expected: {}", data.key(), acks, consumers);
+			log.debug("Still waiting for acks for paginationId='{}'. Received: {}, Expected: {}",
+				data.key(), acks.size(), consumers.size());
 		}
 	}
 
-	private void cleanup(String paginationId) {
-		final var summary = summaryStorage.get(paginationId);
-		if (summary == null) {
-			log.warn("Could not find summary for paginationId='{}' during cleanup. Maybe already cleaned up?", paginationId);
-			ackStorage.delete(paginationId);
-			consumersStorage.delete(paginationId);
-			return;
-		}
-
-		for (final var reference : summary.references()) {
-			metadataStorage.delete(reference);
-			pageStorage.delete(reference);
+	@Override
+	public void close() {
+		if (sweeper != null) {
+			sweeper.close();
 		}
-		log.info("Cleaned up {} pages and metadata entries for paginationId='{}'", summary.references().size(), paginationId);
-
-		summaryStorage.delete(paginationId);
-		log.info("Cleaned up summary for paginationId='{}'", paginationId);
-
-		ackStorage.delete(paginationId);
-		log.info("Cleaned up ack entry for paginationId='{}'", paginationId);
-
-		consumersStorage.delete(paginationId);
-		log.info("Cleaned up registration entry for paginationId='{}'", paginationId);
 	}
 }
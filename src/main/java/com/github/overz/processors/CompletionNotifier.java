@@ -0,0 +1,52 @@
+package com.github.overz.processors;
+
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.Objects;
+
+// Buffers a notice for every consumer registered when a pagination completes, consumers registering later are
+// handled by NotificationProcessor
+@RequiredArgsConstructor
+public class CompletionNotifier implements Processor<String, PaginationSummary, Void, Void> {
+	private final String registrationStorageName;
+	private final String consumerIdStorageName;
+	private final String notificationStorageName;
+
+	private KeyValueStore<String, ConsumerSet> registrationStorage;
+	private ConsumerDictionary dictionary;
+	private NotificationBuffer buffer;
+
+	@Override
+	public void init(final ProcessorContext<Void, Void> context) {
+		this.registrationStorage = Objects.requireNonNull(
+			context.getStateStore(registrationStorageName), "registrationStorage"
+		);
+		this.dictionary = new ConsumerDictionary(
+			Objects.requireNonNull(context.getStateStore(consumerIdStorageName), "consumerIdStorage")
+		);
+		this.buffer = new NotificationBuffer(
+			Objects.requireNonNull(context.getStateStore(notificationStorageName), "notificationStorage")
+		);
+	}
+
+	// a pagination is forwarded as completed once, redelivered pages of it are dropped before the summary
+	@Override
+	public void process(final Record<String, PaginationSummary> data) {
+		final var summary = data.value();
+		if (summary == null || summary.status() != PaginationStatus.COMPLETED) {
+			return;
+		}
+
+		final var consumers = registrationStorage.get(summary.paginationId());
+		if (consumers != null && !consumers.isEmpty()) {
+			buffer.add(summary.paginationId(), dictionary.resolve(consumers));
+		}
+	}
+}
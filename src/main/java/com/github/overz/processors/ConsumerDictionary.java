@@ -0,0 +1,48 @@
+package com.github.overz.processors;
+
+import com.github.overz.dtos.ConsumerSet;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+// Gives every consumer id a small index so consumer sets are bitsets. Indexes are local to the task, registrations
+// and acks of a pagination are always handled by the same one. "id:<consumerId>" holds the index, "ix:<index>" the
+// consumer id and "next" the next free index.
+@RequiredArgsConstructor
+public class ConsumerDictionary {
+	private static final String ID_PREFIX = "id:";
+	private static final String INDEX_PREFIX = "ix:";
+	private static final String NEXT_KEY = "next";
+
+	private final KeyValueStore<String, String> storage;
+
+	public int indexOf(final String consumerId) {
+		final var index = storage.get(ID_PREFIX + consumerId);
+		if (index != null) {
+			return Integer.parseInt(index);
+		}
+
+		final var next = storage.get(NEXT_KEY);
+		final var assigned = next != null ? Integer.parseInt(next) : 0;
+		storage.put(ID_PREFIX + consumerId, Integer.toString(assigned));
+		storage.put(INDEX_PREFIX + assigned, consumerId);
+		storage.put(NEXT_KEY, Integer.toString(assigned + 1));
+		return assigned;
+	}
+
+	public String consumerId(final int index) {
+		return storage.get(INDEX_PREFIX + index);
+	}
+
+	// moves the consumer ids of a set stored before the dictionary into its bits
+	public ConsumerSet resolve(final ConsumerSet set) {
+		if (set.legacy().isEmpty()) {
+			return set;
+		}
+
+		var resolved = set.withLegacy(null);
+		for (final var consumerId : set.legacy()) {
+			resolved = resolved.with(indexOf(consumerId));
+		}
+		return resolved;
+	}
+}
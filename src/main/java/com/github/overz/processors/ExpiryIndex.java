@@ -0,0 +1,93 @@
+package com.github.overz.processors;
+
+import com.github.overz.dtos.ExpiryKind;
+import com.github.overz.dtos.ExpiryPolicy;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Secondary time index over the paginations, each pagination has at most one deadline.
+// "<zero padded deadline>:<kind>:<paginationId>" entries are sorted by deadline so the expired ones are a range
+// scan, "#<paginationId>" points back to the current entry and sorts before every deadline.
+@Slf4j
+@RequiredArgsConstructor
+public class ExpiryIndex {
+	private static final String REVERSE_PREFIX = "#";
+	private static final char SEPARATOR = ':';
+	// first character after the separator, closes the range of a given deadline
+	private static final char RANGE_END = SEPARATOR + 1;
+	private static final int DEADLINE_DIGITS = 19;
+
+	private final KeyValueStore<String, String> storage;
+	private final ExpiryPolicy policy;
+
+	public record Entry(long deadline, ExpiryKind kind, String paginationId) {
+	}
+
+	public void schedule(final ExpiryKind kind, final String paginationId, final long now) {
+		final var deadline = now + policy.ttl(kind);
+		final var reverseKey = REVERSE_PREFIX + paginationId;
+		final var previous = storage.get(reverseKey);
+		if (previous != null) {
+			storage.delete(previous);
+		}
+
+		final var key = key(deadline, kind, paginationId);
+		storage.put(key, paginationId);
+		storage.put(reverseKey, key);
+	}
+
+	// the deadline of an open pagination counts from its first page, a completed one gets a new deadline
+	public void track(final PaginationSummary previous, final PaginationSummary updated, final long now) {
+		if (updated.status() == PaginationStatus.COMPLETED) {
+			schedule(ExpiryKind.COMPLETED, updated.paginationId(), now);
+		} else if (previous == null) {
+			schedule(ExpiryKind.OPEN, updated.paginationId(), now);
+		}
+	}
+
+	public boolean contains(final String paginationId) {
+		return storage.get(REVERSE_PREFIX + paginationId) != null;
+	}
+
+	public void cancel(final String paginationId) {
+		final var key = storage.delete(REVERSE_PREFIX + paginationId);
+		if (key != null) {
+			storage.delete(key);
+		}
+	}
+
+	public List<Entry> expired(final long now) {
+		final var limit = policy.maxSweepSize();
+		final var entries = new ArrayList<Entry>();
+		try (final var iterator = storage.range(pad(0), pad(now) + RANGE_END)) {
+			while (iterator.hasNext() && entries.size() < limit) {
+				entries.add(parse(iterator.next().key));
+			}
+		}
+		return entries;
+	}
+
+	private static String key(final long deadline, final ExpiryKind kind, final String paginationId) {
+		return pad(deadline) + SEPARATOR + kind.name() + SEPARATOR + paginationId;
+	}
+
+	private static Entry parse(final String key) {
+		final var kindEnd = key.indexOf(SEPARATOR, DEADLINE_DIGITS + 1);
+		return new Entry(
+			Long.parseLong(key, 0, DEADLINE_DIGITS, 10),
+			ExpiryKind.valueOf(key.substring(DEADLINE_DIGITS + 1, kindEnd)),
+			key.substring(kindEnd + 1)
+		);
+	}
+
+	private static String pad(final long value) {
+		final var digits = Long.toString(Math.max(value, 0));
+		return "0".repeat(DEADLINE_DIGITS - digits.length()) + digits;
+	}
+}
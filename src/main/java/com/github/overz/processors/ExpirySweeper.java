@@ -0,0 +1,84 @@
+package com.github.overz.processors;
+
+import com.github.overz.dtos.ExpiryKind;
+import com.github.overz.dtos.ExpiryPolicy;
+import com.github.overz.metrics.QueueMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.streams.StreamsMetrics;
+import org.apache.kafka.streams.processor.Punctuator;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Reclaims every pagination whose deadline in the ExpiryIndex has passed, at most maxSweepSize per run and all of
+// them with the same write batches. Acked paginations are scheduled with an immediate deadline.
+@Slf4j
+public class ExpirySweeper implements Punctuator {
+	private static final String SCOPE = "pagination";
+
+	private final ExpiryIndex index;
+	private final PaginationCleaner cleaner;
+	private final ExpiryPolicy policy;
+	private final StreamsMetrics metrics;
+	private final Map<ExpiryKind, Sensor> expired = new EnumMap<>(ExpiryKind.class);
+	private final Sensor reclaimedPages;
+	private final QueueMetrics queueMetrics;
+
+	public ExpirySweeper(
+		final ExpiryIndex index,
+		final PaginationCleaner cleaner,
+		final ExpiryPolicy policy,
+		final StreamsMetrics metrics,
+		final String taskId,
+		final QueueMetrics queueMetrics
+	) {
+		this.index = index;
+		this.cleaner = cleaner;
+		this.policy = policy;
+		this.metrics = metrics;
+		this.queueMetrics = queueMetrics;
+
+		final var entity = "expiry-sweeper-" + taskId;
+		for (final var kind : ExpiryKind.values()) {
+			expired.put(kind, metrics.addRateTotalSensor(
+				SCOPE, entity, "expired-" + kind.name().toLowerCase(), Sensor.RecordingLevel.INFO
+			));
+		}
+		this.reclaimedPages = metrics.addRateTotalSensor(SCOPE, entity, "reclaimed-pages", Sensor.RecordingLevel.INFO);
+	}
+
+	@Override
+	public void punctuate(final long timestamp) {
+		final var entries = index.expired(timestamp);
+		if (entries.isEmpty()) {
+			return;
+		}
+
+		final var paginationIds = new ArrayList<String>(entries.size());
+		for (final var entry : entries) {
+			log.info("Reclaiming {} paginationId='{}', deadline was {}", entry.kind(), entry.paginationId(), entry.deadline());
+			paginationIds.add(entry.paginationId());
+			expired.get(entry.kind()).record();
+		}
+		reclaimedPages.record(cleaner.cleanupAll(paginationIds));
+
+		// acked paginations are due as soon as their last ack is in
+		final var cleanedUp = System.currentTimeMillis();
+		for (final var entry : entries) {
+			if (entry.kind() == ExpiryKind.ACKED) {
+				queueMetrics.cleanedUp(cleanedUp - entry.deadline());
+			}
+		}
+
+		if (entries.size() == policy.maxSweepSize()) {
+			log.warn("Expiry sweep reached its limit of {} paginations, the rest is left for the next run", entries.size());
+		}
+	}
+
+	public void close() {
+		expired.values().forEach(metrics::removeSensor);
+		metrics.removeSensor(reclaimedPages);
+	}
+}
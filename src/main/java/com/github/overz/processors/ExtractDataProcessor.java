@@ -1,7 +1,11 @@
 package com.github.overz.processors;
 
+import com.github.overz.HeaderCodec;
 import com.github.overz.HeaderKey;
+import com.github.overz.PaginationKeys;
+import com.github.overz.dtos.MessageHeaders;
 import com.github.overz.dtos.PageData;
+import com.github.overz.serdes.SerializedSize;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.header.internals.RecordHeaders;
@@ -9,67 +13,112 @@ import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
-import org.apache.kafka.streams.processor.api.RecordMetadata;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Objects;
 
-import static com.github.overz.HeaderKey.bytes;
+import static com.github.overz.HeaderKey.binaryInt;
+import static com.github.overz.HeaderKey.integer;
+import static com.github.overz.HeaderKey.string;
 
 @Slf4j
 @RequiredArgsConstructor
 public class ExtractDataProcessor implements Processor<byte[], byte[], String, PageData> {
 	private final Serializer<PageData> serializer;
+	// set when the input is processed in place, a record keyed otherwise would be on the wrong partition
+	private final boolean keyedByPaginationId;
+	// the summary bitmap grows with the page number, an unbounded one could allocate hundreds of MB per summary
+	private final int maxPages;
 
 	private ProcessorContext<String, PageData> ctx;
-	private RecordMetadata metadata;
+	private SerializedSize<PageData> sizer;
 
 	@Override
 	public void init(final ProcessorContext<String, PageData> context) {
 		this.ctx = Objects.requireNonNull(context, "context");
-		this.metadata = context.recordMetadata()
-			.orElseThrow(() -> new RuntimeException("Missing context metadata"));
+		// the page is encoded once, when it is written to the repartition topic
+		this.sizer = SerializedSize.of(serializer);
 	}
 
 	@Override
 	public void process(final Record<byte[], byte[]> data) {
-		final var topic = metadata.topic();
+		// record metadata changes with every record, it cannot be captured on init
+		final var metadata = ctx.recordMetadata()
+			.orElseThrow(() -> new RuntimeException("Missing context metadata"));
 		final var headers = new RecordHeaders(data.headers());
 
 		// Extract pagination and message IDs from headers
-		final var pid = headers.lastHeader(HeaderKey.PAGINATION_ID).value();
-		final var mid = headers.lastHeader(HeaderKey.MESSAGE_ID).value();
+		final var pid = string(headers, HeaderKey.PAGINATION_ID);
+		final var mid = string(headers, HeaderKey.MESSAGE_ID);
 		final var page = new PageData(data.key(), data.value());
-		final var serialized = serializer.serialize(
-			topic,
-			headers,
-			page
-		);
 
-		// Enrich headers with metadata for downstream processing
-		headers.add(HeaderKey.TOPIC, topic.getBytes());
-		headers.add(HeaderKey.PARTITION, bytes(metadata.partition()));
-		headers.add(HeaderKey.OFFSET, bytes(metadata.offset()));
-		headers.add(HeaderKey.MESSAGE_TIME, bytes(data.timestamp()));
-		headers.add(HeaderKey.ORIGINAL_KEY_SIZE, bytes(data.key() != null ? data.key().length : -1));
-		headers.add(HeaderKey.ORIGINAL_VALUE_SIZE, bytes(data.value() != null ? data.value().length : -1));
-		headers.add(HeaderKey.PAGE_KEY_SIZE, bytes(pid.length));
-		headers.add(HeaderKey.PAGE_VALUE_SIZE, bytes(serialized.length));
+		// the pages of a pagination are found by the "<paginationId>@" prefix, which would also match the pages of
+		// "<paginationId>@..." ids. The processing exception handler sends the record to the dead-letter topic
+		if (pid != null && pid.indexOf(PaginationKeys.SEPARATOR) >= 0) {
+			throw new IllegalArgumentException("paginationId='" + pid + "' cannot contain '" + PaginationKeys.SEPARATOR + "'");
+		}
+		if (keyedByPaginationId && pid != null && !isKeyedBy(data.key(), pid)) {
+			throw new IllegalStateException("record of paginationId='" + pid + "' is not keyed by its pagination id");
+		}
 
-		// Create a composite key to uniquely identify the message page
-		final var composeKey = String.format(
-			"%s@%s",
-			new String(pid, StandardCharsets.UTF_8),
-			new String(mid, StandardCharsets.UTF_8)
-		);
-		headers.add(HeaderKey.COMPOSITE_KEY, composeKey.getBytes(StandardCharsets.UTF_8));
+		final var pageNumber = integer(headers, HeaderKey.PAGE_NUMBER);
+		if (pageNumber > maxPages) {
+			throw new IllegalArgumentException("page number " + pageNumber + " of paginationId='" + pid
+				+ "' is greater than the maximum of " + maxPages + " pages");
+		}
+		// set by the validator when the record was split, each part is stored under its own key
+		final var partIndex = binaryInt(headers, HeaderKey.PART_INDEX, 0);
+		final var partCount = binaryInt(headers, HeaderKey.PART_COUNT, 0);
+		headers.remove(HeaderKey.PART_INDEX);
+		headers.remove(HeaderKey.PART_COUNT);
+
+		// Parse producer headers once and pack them with the enrichment for downstream processing
+		final var messageHeaders = MessageHeaders.builder()
+			.origin(string(headers, HeaderKey.ORIGIN))
+			.paginationId(pid)
+			.messageId(mid)
+			// Create a composite key to uniquely identify the message page
+			.compositeKey(compositeKey(pid, pageNumber, partIndex, partCount))
+			.topic(metadata.topic())
+			.offset(metadata.offset())
+			.partition(metadata.partition())
+			.messageTime(Instant.ofEpochMilli(data.timestamp()))
+			.totalElements(integer(headers, HeaderKey.TOTAL_ELEMENTS))
+			.pageSize(integer(headers, HeaderKey.PAGE_SIZE))
+			.pageNumber(pageNumber)
+			.keySize(pid != null ? pid.getBytes(StandardCharsets.UTF_8).length : 0)
+			.valueSize(sizer.serializedSize(page))
+			.originalKeySize(data.key() != null ? data.key().length : 0)
+			.originalValueSize(data.value() != null ? data.value().length : 0)
+			.partIndex(partIndex)
+			.partCount(partCount)
+			.build();
+		headers.remove(HeaderKey.PAGINATION);
+		headers.add(HeaderKey.PAGINATION, HeaderCodec.encode(messageHeaders));
 
 		// Forward the record with the pagination ID as the key
 		ctx.forward(new Record<>(
-			new String(pid, StandardCharsets.UTF_8),
+			pid,
 			page,
 			data.timestamp(),
 			headers
 		));
 	}
+
+	// only the first part of a split record carries the key
+	private static boolean isKeyedBy(final byte[] key, final String paginationId) {
+		return key == null || Arrays.equals(key, paginationId.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String compositeKey(final String pid, final int pageNumber, final int partIndex, final int partCount) {
+		if (pid == null) {
+			return null;
+		}
+
+		return partCount > 1 ?
+			PaginationKeys.part(pid, pageNumber, partIndex, partCount) :
+			PaginationKeys.composite(pid, pageNumber);
+	}
 }
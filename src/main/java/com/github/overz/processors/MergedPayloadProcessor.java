@@ -0,0 +1,134 @@
+package com.github.overz.processors;
+
+import com.github.luben.zstd.Zstd;
+import com.github.overz.HeaderKey;
+import com.github.overz.dtos.MessageHeaders;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.query.PageReader;
+import com.github.overz.query.PageStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// MERGED output mode: once a pagination completes, its pages are encoded with PageStream in page order, split into
+// chunks that fit in a message and every chunk is zstd compressed on its own, so consumers can decode them one by one.
+// A page whose frame does not fit in a chunk is written as consecutive frames of the same page number spread over
+// consecutive chunks, the first one with the key: consumers concatenate the values of the frames of a page.
+@Slf4j
+@RequiredArgsConstructor
+public class MergedPayloadProcessor implements Processor<String, PaginationSummary, String, byte[]> {
+	private static final int ZSTD_LEVEL = 3;
+	private static final String ENCODING = "zstd";
+
+	private final String pageStorageName;
+	private final int maxChunkSize;
+	// the store is only read on the stream thread, the compression of the chunks runs here
+	private final Executor executor;
+
+	private ProcessorContext<String, byte[]> ctx;
+	private KeyValueStore<String, PageData> pageStorage;
+
+	@Override
+	public void init(final ProcessorContext<String, byte[]> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
+		this.pageStorage = Objects.requireNonNull(context.getStateStore(pageStorageName), "pageStorage");
+	}
+
+	@Override
+	public void process(final Record<String, PaginationSummary> data) {
+		final var summary = data.value();
+		if (summary.status() != PaginationStatus.COMPLETED) {
+			return;
+		}
+
+		final var compressed = new ArrayList<CompletableFuture<byte[]>>();
+		try {
+			for (final var chunk : chunks(summary.paginationId())) {
+				compressed.add(CompletableFuture.supplyAsync(() -> Zstd.compress(chunk, ZSTD_LEVEL), executor));
+			}
+		} catch (final IOException e) {
+			throw new UncheckedIOException("Failed to merge paginationId='" + summary.paginationId() + "'", e);
+		}
+
+		final var input = MessageHeaders.fromHeaders(data.headers()).topic();
+		final var count = compressed.size();
+		for (int i = 0; i < count; i++) {
+			final var headers = new RecordHeaders();
+			headers.add(HeaderKey.PAGINATION_ID, summary.paginationId().getBytes(StandardCharsets.UTF_8));
+			headers.add(HeaderKey.CHUNK_INDEX, HeaderKey.bytes(i));
+			headers.add(HeaderKey.CHUNK_COUNT, HeaderKey.bytes(count));
+			headers.add(HeaderKey.CONTENT_ENCODING, ENCODING.getBytes(StandardCharsets.UTF_8));
+			// names the output of pattern queues
+			if (input != null) {
+				headers.add(HeaderKey.TOPIC, input.getBytes(StandardCharsets.UTF_8));
+			}
+			ctx.forward(new Record<>(summary.paginationId(), compressed.get(i).join(), data.timestamp(), headers));
+		}
+		log.info("Published paginationId='{}' as {} merged chunks", summary.paginationId(), count);
+	}
+
+	private List<byte[]> chunks(final String paginationId) throws IOException {
+		final var chunks = new ArrayList<byte[]>();
+		final var buffer = new ByteArrayOutputStream();
+		final var output = new DataOutputStream(buffer);
+		final var writer = PageStream.writer(output);
+
+		new PageReader(pageStorage).read(paginationId, (pageNumber, page) -> {
+			// a frame never spans two chunks
+			for (final var frame : frames(page)) {
+				if (buffer.size() > 0 && buffer.size() + PageStream.frameSize(frame) > maxChunkSize) {
+					PageStream.end(output);
+					chunks.add(buffer.toByteArray());
+					buffer.reset();
+				}
+				writer.accept(pageNumber, frame);
+			}
+		});
+
+		if (buffer.size() > 0 || chunks.isEmpty()) {
+			PageStream.end(output);
+			chunks.add(buffer.toByteArray());
+		}
+		return chunks;
+	}
+
+	// the page split again in frames that fit in a chunk with its end marker, the key travels with the first one
+	private List<PageData> frames(final PageData page) {
+		if (PageStream.frameSize(page) + Integer.BYTES <= maxChunkSize || page.value() == null) {
+			return List.of(page);
+		}
+
+		final var frames = new ArrayList<PageData>();
+		final var value = page.value();
+		var from = 0;
+		while (from < value.length) {
+			final var key = frames.isEmpty() ? page.key() : null;
+			final var room = maxChunkSize - Integer.BYTES - PageStream.frameSize(new PageData(key, new byte[0]));
+			if (room <= 0) {
+				throw new IllegalStateException("The key of a page does not fit in a chunk of " + maxChunkSize + " bytes");
+			}
+			final var to = Math.min(from + room, value.length);
+			frames.add(new PageData(key, Arrays.copyOfRange(value, from, to)));
+			from = to;
+		}
+		return frames;
+	}
+}
@@ -1,18 +1,29 @@
 package com.github.overz.processors;
 
+import com.github.overz.HeaderKey;
+import com.github.overz.deadletter.DeadLetterPublisher;
+import com.github.overz.metrics.QueueMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 @Slf4j
 @RequiredArgsConstructor
 public class MessageValidatorProcessor implements Processor<byte[], byte[], byte[], byte[]> {
+	// parts of a page are tracked in a long bitmask by the summary
+	public static final int MAX_PARTS = Long.SIZE;
+
 	// limit to allow for headers and serialization overhead within the 1MB Kafka limit
 	private final int maxMessageSize;
+	private final DeadLetterPublisher deadLetterPublisher;
+	private final QueueMetrics metrics;
 
 	private ProcessorContext<byte[], byte[]> ctx;
 
@@ -27,14 +38,42 @@ public class MessageValidatorProcessor implements Processor<byte[], byte[], byte
 		final int valueSize = data.value() != null ? data.value().length : 0;
 		final int totalSize = keySize + valueSize;
 
-		if (totalSize > maxMessageSize) {
-			log.error("Message validation failed: Total size {} bytes exceeds limit of {} bytes. Key size: {}, Value size: {}. Dropping message.",
-				totalSize, maxMessageSize, keySize, valueSize);
-			// In a production environment, this should probably go to a DLQ.
-			// For now, we drop it to protect the stream and changelog.
+		if (totalSize <= maxMessageSize) {
+			ctx.forward(data);
 			return;
 		}
 
-		ctx.forward(data);
+		// the key travels with the first part only, every part must still fit on its own
+		final int partSize = maxMessageSize - keySize;
+		final int partCount = partSize > 0 ? (valueSize + partSize - 1) / partSize : Integer.MAX_VALUE;
+		if (partCount > MAX_PARTS) {
+			final var reason = "Total size " + totalSize + " bytes cannot be split in up to " + MAX_PARTS + " parts of "
+				+ maxMessageSize + " bytes. Key size: " + keySize + ", Value size: " + valueSize;
+			log.error("Message validation failed: {}. Sending message to the dead-letter topic.", reason);
+			final var metadata = ctx.recordMetadata()
+				.orElseThrow(() -> new RuntimeException("Missing context metadata"));
+			deadLetterPublisher.publish(
+				metadata.topic(), metadata.partition(), metadata.offset(), data.key(), data.value(), data.headers(),
+				new RecordTooLargeException(reason)
+			);
+			metrics.dropped();
+			return;
+		}
+
+		log.debug("Splitting message of {} bytes in {} parts", totalSize, partCount);
+		for (int i = 0; i < partCount; i++) {
+			final int from = i * partSize;
+			final var headers = new RecordHeaders(data.headers());
+			headers.remove(HeaderKey.PART_INDEX);
+			headers.remove(HeaderKey.PART_COUNT);
+			headers.add(HeaderKey.PART_INDEX, HeaderKey.binaryBytes(i));
+			headers.add(HeaderKey.PART_COUNT, HeaderKey.binaryBytes(partCount));
+			ctx.forward(new Record<>(
+				i == 0 ? data.key() : null,
+				Arrays.copyOfRange(data.value(), from, Math.min(from + partSize, valueSize)),
+				data.timestamp(),
+				headers
+			));
+		}
 	}
 }
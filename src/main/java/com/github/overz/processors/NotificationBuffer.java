@@ -0,0 +1,25 @@
+package com.github.overz.processors;
+
+import com.github.overz.dtos.ConsumerSet;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.Optional;
+
+// Consumers still to be told a pagination completed, by pagination id. Completions and late registrations are
+// added as they come and NotificationProcessor sends them all at once, so a consumer gets one notice per flush.
+@RequiredArgsConstructor
+class NotificationBuffer {
+	private final KeyValueStore<String, ConsumerSet> storage;
+
+	void add(final String paginationId, final ConsumerSet consumers) {
+		final var stored = storage.get(paginationId);
+		var pending = Optional.ofNullable(stored).orElse(ConsumerSet.empty());
+		for (final var index : consumers.indexes()) {
+			pending = pending.with(index);
+		}
+		if (pending != stored) {
+			storage.put(paginationId, pending);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.github.overz.processors;
+
+import com.github.overz.HeaderKey;
+import com.github.overz.dtos.CompletionNotice;
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.metrics.QueueMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+// Sends the buffered completion notices once per flush interval, one record keyed by consumer id with every
+// pagination completed for it since the previous flush. Registrations for a pagination that already completed
+// are buffered right away, the consumer would otherwise never be told. Notices of a named namespace carry its QUEUE
+// header, so that sending one back on the ack topic with its headers reaches the namespace's acks.
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationProcessor implements Processor<String, String, String, String> {
+	// null for the unnamed queues
+	private final String namespace;
+	private final String summaryStorageName;
+	private final String consumerIdStorageName;
+	private final String notificationStorageName;
+	private final Duration flushInterval;
+	private final QueueMetrics metrics;
+
+	private ProcessorContext<String, String> ctx;
+	private KeyValueStore<String, PaginationSummary> summaryStorage;
+	private KeyValueStore<String, ConsumerSet> notificationStorage;
+	private ConsumerDictionary dictionary;
+	private NotificationBuffer buffer;
+
+	@Override
+	public void init(final ProcessorContext<String, String> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
+		this.summaryStorage = Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
+		this.notificationStorage = Objects.requireNonNull(
+			context.getStateStore(notificationStorageName), "notificationStorage"
+		);
+		this.dictionary = new ConsumerDictionary(
+			Objects.requireNonNull(context.getStateStore(consumerIdStorageName), "consumerIdStorage")
+		);
+		this.buffer = new NotificationBuffer(notificationStorage);
+		context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, this::flush);
+	}
+
+	@Override
+	public void process(final Record<String, String> data) {
+		final var summary = summaryStorage.get(data.key());
+		if (summary != null && summary.status() == PaginationStatus.COMPLETED) {
+			buffer.add(data.key(), ConsumerSet.empty().with(dictionary.indexOf(data.value())));
+		}
+	}
+
+	private void flush(final long timestamp) {
+		final var paginationIds = new ArrayList<String>();
+		final var notices = new LinkedHashMap<String, ArrayList<String>>();
+		try (final var iterator = notificationStorage.all()) {
+			while (iterator.hasNext()) {
+				final var entry = iterator.next();
+				paginationIds.add(entry.key);
+				// cleaned up, acked or expired, before its notice went out
+				if (summaryStorage.get(entry.key) == null) {
+					continue;
+				}
+				for (final var index : dictionary.resolve(entry.value).indexes()) {
+					notices.computeIfAbsent(dictionary.consumerId(index), _ -> new ArrayList<>()).add(entry.key);
+				}
+			}
+		}
+		if (paginationIds.isEmpty()) {
+			return;
+		}
+
+		for (final var notice : notices.entrySet()) {
+			final var value = new CompletionNotice(notice.getKey(), notice.getValue()).toJson();
+			final var headers = new RecordHeaders();
+			if (namespace != null) {
+				headers.add(HeaderKey.QUEUE, namespace.getBytes(StandardCharsets.UTF_8));
+			}
+			ctx.forward(new Record<>(notice.getKey(), value, timestamp, headers));
+		}
+		paginationIds.forEach(notificationStorage::delete);
+
+		metrics.notified(notices.size());
+		log.debug("Sent {} completion notices for {} paginations", notices.size(), paginationIds.size());
+	}
+}
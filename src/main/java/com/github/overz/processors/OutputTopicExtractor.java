@@ -0,0 +1,30 @@
+package com.github.overz.processors;
+
+import com.github.overz.HeaderCodec;
+import com.github.overz.HeaderKey;
+import com.github.overz.dtos.Queue;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.processor.RecordContext;
+import org.apache.kafka.streams.processor.TopicNameExtractor;
+
+// Output topic of a queue whose output is a template, named after the input the pagination came from. Records that
+// left the pagination carry it packed with the other headers, pages and chunks published by the output modes carry
+// it in the TOPIC header.
+@RequiredArgsConstructor
+public class OutputTopicExtractor<K, V> implements TopicNameExtractor<K, V> {
+	private final String template;
+
+	@Override
+	public String extract(final K key, final V value, final RecordContext recordContext) {
+		final var headers = recordContext.headers();
+		final var packed = headers.lastHeader(HeaderKey.PAGINATION);
+		final var input = packed != null ?
+			HeaderCodec.decode(packed.value()).topic() :
+			HeaderKey.string(headers, HeaderKey.TOPIC);
+		if (input == null) {
+			throw new IllegalStateException("Record has no input topic to name the output '" + template + "' after");
+		}
+
+		return template.replace(Queue.INPUT_PLACEHOLDER, input);
+	}
+}
@@ -1,14 +1,16 @@
 package com.github.overz.processors;
 
+import com.github.overz.StoreLayout;
 import com.github.overz.dtos.MessageHeaders;
 import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
-import org.apache.kafka.streams.state.WindowStore;
 
 import java.util.Objects;
 
@@ -16,21 +18,41 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class PageDataProcessor implements Processor<String, PageData, String, PageData> {
 	private final String storageName;
+	private final String summaryStorageName;
+	private final String metadataStorageName;
+	private final StoreLayout layout;
 
 	private ProcessorContext<String, PageData> ctx;
 	private KeyValueStore<String, PageData> storage;
+	private KeyValueStore<String, PaginationSummary> summaryStorage;
+	private RedeliveredPages redeliveredPages;
 
 	@Override
 	public void init(final ProcessorContext<String, PageData> context) {
 		this.ctx = Objects.requireNonNull(context, "context");
 		this.storage = Objects.requireNonNull(context.getStateStore(storageName), "storage");
+		this.summaryStorage = Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
+		this.redeliveredPages = new RedeliveredPages(
+			storage, Objects.requireNonNull(context.getStateStore(metadataStorageName), "metadataStorage"), layout
+		);
 	}
 
 	@Override
 	public void process(final Record<String, PageData> data) {
 		final var headers = MessageHeaders.fromHeaders(data.headers());
+		// A page the summary already counts is a redelivery, dropping it keeps the stored page and the summary as
+		// they were and nothing downstream sees it twice
+		final var summary = summaryStorage.get(headers.paginationId());
+		if (summary != null && summary.contains(headers)) {
+			redeliveredPages.drop(headers);
+			return;
+		}
+
 		// Store the page data using the composite key for later retrieval
-		storage.put(headers.compositeKey(), data.value());
+		final var page = layout == StoreLayout.COMBINED ?
+			data.value().withMetadata(PageMetadata.fromHeaders(headers)) :
+			data.value();
+		storage.put(headers.compositeKey(), page);
 		// Forward the record with the composite key to the next processor
 		ctx.forward(data.withKey(headers.compositeKey()));
 	}
@@ -0,0 +1,97 @@
+package com.github.overz.processors;
+
+import com.github.overz.HeaderKey;
+import com.github.overz.dtos.MessageHeaders;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.query.PageReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+// STREAMING output mode: publishes the original value of every page in page order, keyed by pagination id so a
+// pagination stays on one output partition, the producer key travels in PAGE_KEY. Pages that arrive ahead of a gap
+// stay in the page store until the missing ones arrive. Split pages are published as the parts they were stored in,
+// with the PART headers the validator gave them, so no record is larger than the input ones.
+@Slf4j
+@RequiredArgsConstructor
+public class PageEmitterProcessor implements Processor<String, PaginationSummary, byte[], byte[]> {
+	private static final int FIRST_PAGE = 1;
+
+	private final String pageStorageName;
+	private final String summaryStorageName;
+
+	private ProcessorContext<byte[], byte[]> ctx;
+	private PageReader pageReader;
+	private KeyValueStore<String, PaginationSummary> summaryStorage;
+
+	@Override
+	public void init(final ProcessorContext<byte[], byte[]> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
+		final KeyValueStore<String, PageData> pageStorage =
+			Objects.requireNonNull(context.getStateStore(pageStorageName), "pageStorage");
+		this.pageReader = new PageReader(pageStorage);
+		this.summaryStorage = Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
+	}
+
+	@Override
+	public void process(final Record<String, PaginationSummary> data) {
+		final var summary = data.value();
+		final var input = MessageHeaders.fromHeaders(data.headers()).topic();
+		final var key = summary.paginationId().getBytes(StandardCharsets.UTF_8);
+		var next = summary.emittedPages() + FIRST_PAGE;
+		while (summary.contains(next)) {
+			final var parts = pageReader.readParts(summary.paginationId(), next);
+			if (parts == null) {
+				log.warn("Page {} of paginationId='{}' is marked as received but is not in the store, stopping emission",
+					next, summary.paginationId());
+				break;
+			}
+			for (int i = 0; i < parts.size(); i++) {
+				final var part = parts.get(i);
+				final var headers = headers(summary, next, input);
+				// only the first part of a split page has the key
+				if (part.key() != null) {
+					headers.add(HeaderKey.PAGE_KEY, part.key());
+				}
+				if (parts.size() > 1) {
+					headers.add(HeaderKey.PART_INDEX, HeaderKey.binaryBytes(i));
+					headers.add(HeaderKey.PART_COUNT, HeaderKey.binaryBytes(parts.size()));
+				}
+				ctx.forward(new Record<>(key, part.value(), data.timestamp(), headers));
+			}
+			next++;
+		}
+
+		final var emitted = next - FIRST_PAGE;
+		if (emitted != summary.emittedPages()) {
+			summaryStorage.put(summary.paginationId(), summary.withEmittedPages(emitted));
+		}
+	}
+
+	private static RecordHeaders headers(final PaginationSummary summary, final int pageNumber, final String input) {
+		final var headers = new RecordHeaders();
+		headers.add(HeaderKey.PAGINATION_ID, summary.paginationId().getBytes(StandardCharsets.UTF_8));
+		// names the output of pattern queues
+		if (input != null) {
+			headers.add(HeaderKey.TOPIC, input.getBytes(StandardCharsets.UTF_8));
+		}
+		headers.add(HeaderKey.PAGE_NUMBER, text(pageNumber));
+		// the last page carries the totals, same as the producers send them
+		if (pageNumber == summary.totalPages()) {
+			headers.add(HeaderKey.TOTAL_ELEMENTS, text(summary.totalElements()));
+		}
+		return headers;
+	}
+
+	private static byte[] text(final int value) {
+		return Integer.toString(value).getBytes(StandardCharsets.UTF_8);
+	}
+}
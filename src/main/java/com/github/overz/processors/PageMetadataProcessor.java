@@ -1,5 +1,6 @@
 package com.github.overz.processors;
 
+import com.github.overz.StoreLayout;
 import com.github.overz.dtos.MessageHeaders;
 import com.github.overz.dtos.PageData;
 import com.github.overz.dtos.PageMetadata;
@@ -12,7 +13,6 @@ import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
 
-import java.util.ArrayList;
 import java.util.Objects;
 
 @Slf4j
@@ -20,6 +20,7 @@ import java.util.Objects;
 public class PageMetadataProcessor implements Processor<String, PageData, String, PaginationData> {
 	private final String storageName;
 	private final Serializer<PageMetadata> serializer;
+	private final StoreLayout layout;
 
 	private ProcessorContext<String, PaginationData> ctx;
 	private KeyValueStore<String, PageMetadata> storage;
@@ -34,18 +35,12 @@ public class PageMetadataProcessor implements Processor<String, PageData, String
 	public void process(final Record<String, PageData> data) {
 		final var headers = MessageHeaders.fromHeaders(data.headers());
 
-		final var metadata = new PageMetadata(
-			headers.topic(),
-			headers.messageId(),
-			headers.pageNumber(),
-			headers.offset(),
-			headers.partition(),
-			headers.keySize(),
-			headers.valueSize()
-		);
-
-		// Persist metadata for the specific page
-		storage.put(headers.compositeKey(), metadata);
+		final var metadata = PageMetadata.fromHeaders(headers);
+
+		// Persist metadata for the specific page, the page store already holds it with the combined layout
+		if (layout == StoreLayout.SEPARATE) {
+			storage.put(headers.compositeKey(), metadata);
+		}
 
 		// Combine page data and metadata into a single object for downstream aggregation
 		final var pagination = new PaginationData(data.value(), metadata);
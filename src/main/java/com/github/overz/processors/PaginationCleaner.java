@@ -0,0 +1,100 @@
+package com.github.overz.processors;
+
+import com.github.overz.PaginationKeys;
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Removes every entry of a pagination, pages and metadata are found by scanning the "<paginationId>@" key range
+// so entries the summary does not know about are reclaimed too. Deletions of many paginations share the same
+// write batches.
+@Slf4j
+@RequiredArgsConstructor
+public class PaginationCleaner {
+	private static final int BATCH_SIZE = 500;
+	private static final StringSerializer PREFIX_SERIALIZER = new StringSerializer();
+
+	private final KeyValueStore<String, PageData> pageStorage;
+	private final KeyValueStore<String, PageMetadata> metadataStorage;
+	private final KeyValueStore<String, PaginationSummary> summaryStorage;
+	private final KeyValueStore<String, ConsumerSet> consumersStorage;
+	private final KeyValueStore<String, ConsumerSet> ackStorage;
+	private final ExpiryIndex expiryIndex;
+
+	public int cleanup(final String paginationId) {
+		return cleanupAll(List.of(paginationId));
+	}
+
+	// returns the number of pages removed
+	public int cleanupAll(final Collection<String> paginationIds) {
+		final var pageBatch = new ArrayList<KeyValue<String, PageData>>();
+		final var metadataBatch = new ArrayList<KeyValue<String, PageMetadata>>();
+		final var summaryBatch = new ArrayList<KeyValue<String, PaginationSummary>>();
+		final var ackBatch = new ArrayList<KeyValue<String, ConsumerSet>>();
+		final var consumersBatch = new ArrayList<KeyValue<String, ConsumerSet>>();
+
+		var pages = 0;
+		for (final var paginationId : paginationIds) {
+			final var paginationPages = deleteByPrefix(pageStorage, paginationId, pageBatch);
+			final var metadata = deleteByPrefix(metadataStorage, paginationId, metadataBatch);
+			delete(summaryStorage, paginationId, summaryBatch);
+			delete(ackStorage, paginationId, ackBatch);
+			delete(consumersStorage, paginationId, consumersBatch);
+			expiryIndex.cancel(paginationId);
+			log.info("Cleaning up {} pages, {} metadata entries, summary, ack, registration and expiry entries for paginationId='{}'",
+				paginationPages, metadata, paginationId);
+			pages += paginationPages;
+		}
+
+		flush(pageStorage, pageBatch);
+		flush(metadataStorage, metadataBatch);
+		flush(summaryStorage, summaryBatch);
+		flush(ackStorage, ackBatch);
+		flush(consumersStorage, consumersBatch);
+		return pages;
+	}
+
+	static <V> int deleteByPrefix(
+		final KeyValueStore<String, V> store,
+		final String paginationId,
+		final List<KeyValue<String, V>> batch
+	) {
+		final var keys = new ArrayList<String>();
+		try (final var iterator = store.prefixScan(PaginationKeys.prefix(paginationId), PREFIX_SERIALIZER)) {
+			while (iterator.hasNext()) {
+				keys.add(iterator.next().key);
+			}
+		}
+
+		// keys are collected first, the store is not modified while the iterator is open
+		for (final var key : keys) {
+			delete(store, key, batch);
+		}
+		return keys.size();
+	}
+
+	private static <V> void delete(final KeyValueStore<String, V> store, final String key, final List<KeyValue<String, V>> batch) {
+		batch.add(KeyValue.pair(key, null));
+		if (batch.size() == BATCH_SIZE) {
+			flush(store, batch);
+		}
+	}
+
+	// a null value in putAll is a delete, RocksDB applies the whole list as one write batch
+	private static <V> void flush(final KeyValueStore<String, V> store, final List<KeyValue<String, V>> batch) {
+		if (!batch.isEmpty()) {
+			store.putAll(batch);
+			batch.clear();
+		}
+	}
+}
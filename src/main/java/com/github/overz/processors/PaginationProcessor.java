@@ -0,0 +1,73 @@
+package com.github.overz.processors;
+
+import com.github.overz.StoreLayout;
+import com.github.overz.dtos.ExpiryPolicy;
+import com.github.overz.dtos.MessageHeaders;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.Objects;
+
+// PageDataProcessor, PageMetadataProcessor and PaginationSummaryProcessor in a single stage, the forwarded
+// records are the same the chained processors produce
+@RequiredArgsConstructor
+public class PaginationProcessor implements Processor<String, PageData, String, PaginationSummary> {
+	private final String pageStorageName;
+	private final String metadataStorageName;
+	private final String summaryStorageName;
+	private final String expiryStorageName;
+	private final ExpiryPolicy expiryPolicy;
+	private final StoreLayout layout;
+
+	private ProcessorContext<String, PaginationSummary> ctx;
+	private KeyValueStore<String, PageData> pageStorage;
+	private KeyValueStore<String, PageMetadata> metadataStorage;
+	private KeyValueStore<String, PaginationSummary> summaryStorage;
+	private ExpiryIndex expiryIndex;
+	private RedeliveredPages redeliveredPages;
+
+	@Override
+	public void init(final ProcessorContext<String, PaginationSummary> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
+		this.pageStorage = Objects.requireNonNull(context.getStateStore(pageStorageName), "pageStorage");
+		this.metadataStorage = Objects.requireNonNull(context.getStateStore(metadataStorageName), "metadataStorage");
+		this.summaryStorage = Objects.requireNonNull(context.getStateStore(summaryStorageName), "summaryStorage");
+		this.expiryIndex = new ExpiryIndex(
+			Objects.requireNonNull(context.getStateStore(expiryStorageName), "expiryStorage"), expiryPolicy
+		);
+		this.redeliveredPages = new RedeliveredPages(pageStorage, metadataStorage, layout);
+	}
+
+	@Override
+	public void process(final Record<String, PageData> data) {
+		final var headers = MessageHeaders.fromHeaders(data.headers());
+		final var compositeKey = headers.compositeKey();
+		final var paginationId = headers.paginationId();
+		final var metadata = PageMetadata.fromHeaders(headers);
+
+		final var summary = summaryStorage.get(paginationId);
+		if (summary != null && summary.contains(headers)) {
+			redeliveredPages.drop(headers);
+			return;
+		}
+		final var updatedSummary = (summary != null ? summary.addPage(headers) : PaginationSummary.newSummary(headers))
+			.updateStatus();
+
+		if (layout == StoreLayout.COMBINED) {
+			pageStorage.put(compositeKey, data.value().withMetadata(metadata));
+		} else {
+			pageStorage.put(compositeKey, data.value());
+			metadataStorage.put(compositeKey, metadata);
+		}
+		summaryStorage.put(paginationId, updatedSummary);
+		expiryIndex.track(summary, updatedSummary, ctx.currentSystemTimeMs());
+
+		ctx.forward(new Record<>(compositeKey, updatedSummary, data.timestamp(), data.headers()));
+	}
+}
@@ -1,8 +1,8 @@
 package com.github.overz.processors;
 
+import com.github.overz.dtos.ExpiryPolicy;
 import com.github.overz.dtos.MessageHeaders;
 import com.github.overz.dtos.PaginationData;
-import com.github.overz.dtos.PaginationStatus;
 import com.github.overz.dtos.PaginationSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,74 +12,47 @@ import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
 
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @RequiredArgsConstructor
 public class PaginationSummaryProcessor implements Processor<String, PaginationData, String, PaginationSummary> {
 	private final String storageName;
+	private final String expiryStorageName;
+	private final ExpiryPolicy expiryPolicy;
+
 	private ProcessorContext<String, PaginationSummary> ctx;
 	private KeyValueStore<String, PaginationSummary> storage;
+	private ExpiryIndex expiryIndex;
 
 	@Override
 	public void init(final ProcessorContext<String, PaginationSummary> context) {
 		this.ctx = Objects.requireNonNull(context, "context");
 		this.storage = Objects.requireNonNull(context.getStateStore(storageName));
+		this.expiryIndex = new ExpiryIndex(
+			Objects.requireNonNull(context.getStateStore(expiryStorageName), "expiryStorage"), expiryPolicy
+		);
 	}
 
 	@Override
 	public void process(final Record<String, PaginationData> data) {
-		final var isNew = new AtomicBoolean(false);
 		final var headers = MessageHeaders.fromHeaders(data.headers());
 		final var key = headers.paginationId();
 
 		// Retrieve existing summary or create a new one if it's the first page
-		var summary = Optional.ofNullable(storage.get(key))
-			.orElseGet(() -> {
-				isNew.set(true);
-				return PaginationSummary.newSummary(headers);
-			});
-
-		if (isNew.get()) {
-			// Even if new, we check status (case of single page pagination)
-			summary = updateStatus(summary);
-			storage.put(key, summary);
-			ctx.forward(data.withValue(summary));
+		final var summary = storage.get(key);
+		if (summary != null && summary.contains(headers)) {
+			log.debug("Ignoring redelivered page {} of paginationId='{}'", headers.pageNumber(), key);
 			return;
 		}
 
-		summary.references().add(headers.compositeKey());
-
-		// If this message has the total count (is the last page), update the summary totals
-		if (headers.totalElements() > 0) {
-			summary = summary.withTotalElements(headers.totalElements())
-				.withTotalPages(headers.pageNumber());
-		}
-
-		// Update summary with the new page reference and check for completion
-		final var updatedSummary = updateStatus(summary);
+		// Update summary with the new page reference and check for completion,
+		// even if new (case of single page pagination)
+		final var updatedSummary = (summary != null ? summary.addPage(headers) : PaginationSummary.newSummary(headers))
+			.updateStatus();
 		storage.put(key, updatedSummary);
+		expiryIndex.track(summary, updatedSummary, ctx.currentSystemTimeMs());
 
 		// forward the summary
 		ctx.forward(data.withValue(updatedSummary));
-
-		// remove when completed
-		if (summary.status() == PaginationStatus.COMPLETED) {
-			storage.delete(key);
-		}
-	}
-
-	private PaginationSummary updateStatus(final PaginationSummary summary) {
-		// We can only be completed if we know the total pages (totalPages != -1)
-		// AND we have collected exactly that many pages.
-		final boolean isTotalKnown = summary.totalPages() != -1;
-		final boolean allPagesReceived = isTotalKnown && summary.references().size() == summary.totalPages();
-
-		final var status = allPagesReceived ?
-			PaginationStatus.COMPLETED :
-			PaginationStatus.OPEN;
-
-		return summary.withStatus(status);
 	}
 }
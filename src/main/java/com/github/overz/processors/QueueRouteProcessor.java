@@ -0,0 +1,32 @@
+package com.github.overz.processors;
+
+import com.github.overz.HeaderKey;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+
+import java.util.Objects;
+
+// Keeps the registrations and acks of one queue namespace, addressed with the QUEUE header. Records without the
+// header belong to the default namespace.
+@RequiredArgsConstructor
+public class QueueRouteProcessor implements Processor<String, String, String, String> {
+	private final String namespace;
+	private final boolean isDefault;
+
+	private ProcessorContext<String, String> ctx;
+
+	@Override
+	public void init(final ProcessorContext<String, String> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
+	}
+
+	@Override
+	public void process(final Record<String, String> data) {
+		final var queue = HeaderKey.string(data.headers(), HeaderKey.QUEUE);
+		if (queue == null ? isDefault : queue.equals(namespace)) {
+			ctx.forward(data);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.overz.processors;
+
+import com.github.overz.StoreLayout;
+import com.github.overz.dtos.MessageHeaders;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.util.Objects;
+import java.util.Optional;
+
+// A page the summary already has is a redelivery under at-least-once and is dropped before any store write, so the
+// first copy is the one kept. Only redeliveries read the stored metadata, to report the ones that are not the same
+// message.
+@Slf4j
+@RequiredArgsConstructor
+class RedeliveredPages {
+	private final KeyValueStore<String, PageData> pageStorage;
+	private final KeyValueStore<String, PageMetadata> metadataStorage;
+	private final StoreLayout layout;
+
+	void drop(final MessageHeaders headers) {
+		final var stored = storedMessageId(headers.compositeKey());
+		if (stored != null && !Objects.equals(stored, headers.messageId())) {
+			log.warn("Page {} of paginationId='{}' was received again as messageId='{}', keeping messageId='{}'",
+				headers.pageNumber(), headers.paginationId(), headers.messageId(), stored);
+		} else {
+			log.debug("Ignoring redelivered page {} of paginationId='{}'", headers.pageNumber(), headers.paginationId());
+		}
+	}
+
+	// only pages stored with the COMBINED layout hold their metadata, the page itself is not read otherwise
+	private String storedMessageId(final String compositeKey) {
+		final var metadata = layout == StoreLayout.COMBINED ?
+			Optional.ofNullable(pageStorage.get(compositeKey)).map(PageData::metadata).orElse(null) :
+			metadataStorage.get(compositeKey);
+		return metadata != null ? metadata.messageId() : null;
+	}
+}
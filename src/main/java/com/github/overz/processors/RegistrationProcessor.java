@@ -1,5 +1,8 @@
 package com.github.overz.processors;
 
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.ExpiryKind;
+import com.github.overz.dtos.ExpiryPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.streams.processor.api.Processor;
@@ -7,27 +10,48 @@ import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
 import org.apache.kafka.streams.state.KeyValueStore;
 
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 
 @Slf4j
 @RequiredArgsConstructor
 public class RegistrationProcessor implements Processor<String, String, Void, Void> {
 
 	private final String registrationStorageName;
-	private KeyValueStore<String, Set<String>> storage;
+	private final String consumerIdStorageName;
+	private final String expiryStorageName;
+	private final ExpiryPolicy expiryPolicy;
+
+	private ProcessorContext<Void, Void> ctx;
+	private KeyValueStore<String, ConsumerSet> storage;
+	private ConsumerDictionary dictionary;
+	private ExpiryIndex expiryIndex;
 
 	@Override
 	public void init(final ProcessorContext<Void, Void> context) {
+		this.ctx = Objects.requireNonNull(context, "context");
 		this.storage = Objects.requireNonNull(context.getStateStore(registrationStorageName), "storage");
+		this.dictionary = new ConsumerDictionary(
+			Objects.requireNonNull(context.getStateStore(consumerIdStorageName), "consumerIdStorage")
+		);
+		this.expiryIndex = new ExpiryIndex(
+			Objects.requireNonNull(context.getStateStore(expiryStorageName), "expiryStorage"), expiryPolicy
+		);
 	}
 
 	@Override
 	public void process(final Record<String, String> data) {
-		final var consumers = Optional.ofNullable(storage.get(data.key())).orElse(new HashSet<>());
-		consumers.add(data.value());
-		storage.put(data.key(), consumers);
+		// repeated registrations leave the stored set untouched
+		final var stored = storage.get(data.key());
+		final var consumers = dictionary.resolve(Optional.ofNullable(stored).orElse(ConsumerSet.empty()))
+			.with(dictionary.indexOf(data.value()));
+		if (consumers != stored) {
+			storage.put(data.key(), consumers);
+		}
+
+		// a started pagination already has its own deadline
+		if (!expiryIndex.contains(data.key())) {
+			expiryIndex.schedule(ExpiryKind.REGISTRATION, data.key(), ctx.currentSystemTimeMs());
+		}
 	}
 }
@@ -0,0 +1,53 @@
+package com.github.overz.processors;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.processor.api.Record;
+
+import java.util.concurrent.TimeUnit;
+
+// Records the time the wrapped processor spends on each record. Forwarding runs the downstream processors on the
+// same call stack, the time of the timed ones is taken out so every timer only covers its own processor.
+@RequiredArgsConstructor
+public class TimedProcessor<KIn, VIn, KOut, VOut> implements Processor<KIn, VIn, KOut, VOut> {
+	// time spent in nested timed processors of the current stream thread, one slot so recording does not allocate
+	private static final ThreadLocal<long[]> NESTED = ThreadLocal.withInitial(() -> new long[1]);
+
+	private final Processor<KIn, VIn, KOut, VOut> delegate;
+	private final Timer timer;
+
+	public static <KIn, VIn, KOut, VOut> ProcessorSupplier<KIn, VIn, KOut, VOut> timed(
+		final Timer timer,
+		final ProcessorSupplier<KIn, VIn, KOut, VOut> supplier
+	) {
+		return () -> new TimedProcessor<>(supplier.get(), timer);
+	}
+
+	@Override
+	public void init(final ProcessorContext<KOut, VOut> context) {
+		delegate.init(context);
+	}
+
+	@Override
+	public void process(final Record<KIn, VIn> data) {
+		final var nested = NESTED.get();
+		final var outer = nested[0];
+		nested[0] = 0;
+		final var start = System.nanoTime();
+		try {
+			delegate.process(data);
+		} finally {
+			final var elapsed = System.nanoTime() - start;
+			timer.record(elapsed - nested[0], TimeUnit.NANOSECONDS);
+			nested[0] = outer + elapsed;
+		}
+	}
+
+	@Override
+	public void close() {
+		delegate.close();
+	}
+}
@@ -0,0 +1,10 @@
+package com.github.overz.query;
+
+import com.github.overz.dtos.PageData;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface PageConsumer {
+	void accept(int pageNumber, PageData page) throws IOException;
+}
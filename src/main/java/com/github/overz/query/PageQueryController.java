@@ -0,0 +1,24 @@
+package com.github.overz.query;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+public class PageQueryController {
+	private final PageQueryService service;
+
+	@GetMapping(path = PageQueryService.PAGES_PATH, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public StreamingResponseBody pages(
+		@PathVariable final String paginationId,
+		@RequestParam(required = false) final String queue,
+		@RequestParam(defaultValue = "false") final boolean local
+	) {
+		return output -> service.stream(queue, paginationId, local, output);
+	}
+}
@@ -0,0 +1,130 @@
+package com.github.overz.query;
+
+import com.github.overz.StreamService;
+import com.github.overz.dtos.PageData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+// Serves the pages of a pagination from the instance that owns its partition, other instances are reached through
+// the page fetch endpoint of the owner and their response is streamed through. Queues are addressed by name, null
+// for the unnamed ones.
+@Slf4j
+@RequiredArgsConstructor
+public class PageQueryService {
+	public static final String PAGES_PATH = "/paginations/{paginationId}/pages";
+
+	private static final StringSerializer KEY_SERIALIZER = new StringSerializer();
+
+	// Kafka Streams instance running the stores of a queue
+	private final Function<String, KafkaStreams> streams;
+	private final HostInfo self;
+	private final HttpClient client;
+
+	// pages in page order, wherever they are stored
+	public int fetch(final String queue, final String paginationId, final PageConsumer consumer) throws IOException {
+		final var metadata = metadata(queue, paginationId);
+		if (isLocal(metadata)) {
+			return reader(queue, metadata.partition()).read(paginationId, consumer);
+		}
+
+		try (final var body = request(metadata.activeHost(), queue, paginationId, HttpResponse.BodyHandlers.ofInputStream())) {
+			return PageStream.read(body, consumer);
+		}
+	}
+
+	// encoded with PageStream, local=true is set by the instances forwarding the request to the owner
+	public void stream(
+		final String queue,
+		final String paginationId,
+		final boolean local,
+		final OutputStream output
+	) throws IOException {
+		final var metadata = metadata(queue, paginationId);
+		if (local || isLocal(metadata)) {
+			final var data = new DataOutputStream(output);
+			final var pages = reader(queue, metadata.partition()).read(paginationId, PageStream.writer(data));
+			PageStream.end(data);
+			log.debug("Streamed {} pages of paginationId='{}'", pages, paginationId);
+			return;
+		}
+
+		try (final var body = request(metadata.activeHost(), queue, paginationId, HttpResponse.BodyHandlers.ofInputStream())) {
+			body.transferTo(output);
+		}
+	}
+
+	private KeyQueryMetadata metadata(final String queue, final String paginationId) {
+		final var metadata = current(queue).queryMetadataForKey(storageName(queue), paginationId, KEY_SERIALIZER);
+		if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+			throw new IllegalStateException("No instance currently owns paginationId='" + paginationId + "'");
+		}
+		return metadata;
+	}
+
+	private boolean isLocal(final KeyQueryMetadata metadata) {
+		return self.equals(metadata.activeHost());
+	}
+
+	private PageReader reader(final String queue, final int partition) {
+		final ReadOnlyKeyValueStore<String, PageData> storage = current(queue).store(
+			StoreQueryParameters.fromNameAndType(storageName(queue), QueryableStoreTypes.<String, PageData>keyValueStore())
+				.withPartition(partition)
+		);
+		return new PageReader(storage);
+	}
+
+	private <T> T request(
+		final HostInfo host,
+		final String queue,
+		final String paginationId,
+		final HttpResponse.BodyHandler<T> handler
+	) throws IOException {
+		final var path = PAGES_PATH.replace("{paginationId}", URLEncoder.encode(paginationId, StandardCharsets.UTF_8));
+		final var query = queue != null ? "?local=true&queue=" + URLEncoder.encode(queue, StandardCharsets.UTF_8) : "?local=true";
+		final var uri = URI.create("http://" + host.host() + ":" + host.port() + path + query);
+		final var request = HttpRequest.newBuilder(uri).GET().build();
+
+		try {
+			final var response = client.send(request, handler);
+			if (response.statusCode() != 200) {
+				throw new IOException(
+					"Fetching paginationId='" + paginationId + "' from " + host + " failed with " + response.statusCode()
+				);
+			}
+			return response.body();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching paginationId='" + paginationId + "' from " + host, e);
+		}
+	}
+
+	private KafkaStreams current(final String queue) {
+		final var current = streams.apply(queue);
+		if (current == null) {
+			throw new IllegalStateException("Kafka Streams is not running");
+		}
+		return current;
+	}
+
+	private static String storageName(final String queue) {
+		return StreamService.StoreNames.of(queue).page();
+	}
+}
@@ -0,0 +1,120 @@
+package com.github.overz.query;
+
+import com.github.overz.PaginationKeys;
+import com.github.overz.dtos.PageData;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the pages of a pagination in page order, the keys of a pagination are one contiguous range of the store
+// so a single prefix scan fetches them in batches instead of one lookup per page. Pages split in parts are
+// reassembled, the parts of a page are contiguous and sorted by part index.
+@Slf4j
+@RequiredArgsConstructor
+public class PageReader {
+	private static final StringSerializer PREFIX_SERIALIZER = new StringSerializer();
+
+	private final ReadOnlyKeyValueStore<String, PageData> storage;
+
+	public int read(final String paginationId, final PageConsumer consumer) throws IOException {
+		return scan(PaginationKeys.prefix(paginationId), consumer);
+	}
+
+	// null while the page, or any of its parts, is missing
+	public PageData readPage(final String paginationId, final int pageNumber) {
+		final var page = new PageData[1];
+		try {
+			scan(PaginationKeys.composite(paginationId, pageNumber), (number, data) -> page[0] = data);
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return page[0];
+	}
+
+	// the records of a page as they are stored: the page itself, or its parts in order when it was split. Null while
+	// the page, or any of its parts, is missing
+	public List<PageData> readParts(final String paginationId, final int pageNumber) {
+		final var parts = new ArrayList<PageData>();
+		try (final var iterator = storage.prefixScan(PaginationKeys.composite(paginationId, pageNumber), PREFIX_SERIALIZER)) {
+			while (iterator.hasNext()) {
+				final var entry = iterator.next();
+				if (!PaginationKeys.isPart(entry.key)) {
+					return List.of(published(entry.value));
+				}
+				if (PaginationKeys.partIndex(entry.key) != parts.size()) {
+					return null;
+				}
+				parts.add(published(entry.value));
+				if (parts.size() == PaginationKeys.partCount(entry.key)) {
+					return parts;
+				}
+			}
+		}
+		return null;
+	}
+
+	private int scan(final String prefix, final PageConsumer consumer) throws IOException {
+		var pages = 0;
+		final var parts = new ArrayList<PageData>();
+		String partsOf = null;
+		try (final var iterator = storage.prefixScan(prefix, PREFIX_SERIALIZER)) {
+			while (iterator.hasNext()) {
+				final var entry = iterator.next();
+				if (!PaginationKeys.hasPageNumber(entry.key)) {
+					log.debug("Skipping page '{}' stored without a page number", entry.key);
+					continue;
+				}
+				if (!PaginationKeys.isPart(entry.key)) {
+					consumer.accept(PaginationKeys.pageNumber(entry.key), published(entry.value));
+					pages++;
+					continue;
+				}
+
+				// a page only made it out once all of its parts did, a gap drops the page
+				final var partCount = PaginationKeys.partCount(entry.key);
+				final var partIndex = PaginationKeys.partIndex(entry.key);
+				final var page = entry.key.substring(0, entry.key.lastIndexOf(PaginationKeys.PART_SEPARATOR));
+				if (!page.equals(partsOf) || partIndex != parts.size()) {
+					parts.clear();
+					partsOf = page;
+					if (partIndex != 0) {
+						log.debug("Skipping part '{}' of an incomplete page", entry.key);
+						continue;
+					}
+				}
+				parts.add(entry.value);
+				if (parts.size() == partCount) {
+					consumer.accept(PaginationKeys.pageNumber(entry.key), assemble(parts));
+					pages++;
+					parts.clear();
+					partsOf = null;
+				}
+			}
+		}
+		return pages;
+	}
+
+	// the key travels with the first part only
+	private static PageData assemble(final List<PageData> parts) throws IOException {
+		final var value = new ByteArrayOutputStream();
+		var hasValue = false;
+		for (final var part : parts) {
+			if (part.value() != null) {
+				value.write(part.value());
+				hasValue = true;
+			}
+		}
+		return new PageData(parts.get(0).key(), hasValue ? value.toByteArray() : null);
+	}
+
+	// pages are read back as they were produced, metadata stored with them stays internal
+	private static PageData published(final PageData page) {
+		return page.metadata() != null ? page.withMetadata(null) : page;
+	}
+}
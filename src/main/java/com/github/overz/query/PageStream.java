@@ -0,0 +1,48 @@
+package com.github.overz.query;
+
+import com.github.overz.dtos.PageData;
+import com.github.overz.serdes.PageDataRawDeserializer;
+import com.github.overz.serdes.PageDataRawSerializer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Wire format of the page fetch API: [page number][frame length][RAW page frame] repeated, closed by END
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PageStream {
+	private static final int END = -1;
+	private static final PageDataRawSerializer SERIALIZER = new PageDataRawSerializer();
+
+	public static int frameSize(final PageData page) {
+		return 2 * Integer.BYTES + PageDataRawSerializer.sizeOf(page);
+	}
+
+	public static PageConsumer writer(final DataOutputStream output) {
+		return (pageNumber, page) -> {
+			final var frame = SERIALIZER.serialize(null, page);
+			output.writeInt(pageNumber);
+			output.writeInt(frame.length);
+			output.write(frame);
+		};
+	}
+
+	public static void end(final DataOutputStream output) throws IOException {
+		output.writeInt(END);
+		output.flush();
+	}
+
+	public static int read(final InputStream stream, final PageConsumer consumer) throws IOException {
+		final var input = new DataInputStream(stream);
+		var pages = 0;
+		for (var pageNumber = input.readInt(); pageNumber != END; pageNumber = input.readInt()) {
+			final var frame = input.readNBytes(input.readInt());
+			consumer.accept(pageNumber, PageDataRawDeserializer.decode(frame));
+			pages++;
+		}
+		return pages;
+	}
+}
@@ -18,6 +18,10 @@ public abstract class BaseDeserializer<T> implements Deserializer<T> {
 
 	@Override
 	public T deserialize(String s, byte[] bytes) {
+		if (bytes == null) {
+			return null;
+		}
+
 		try {
 			return this.doDeserialize(s, bytes);
 		} catch (Exception e) {
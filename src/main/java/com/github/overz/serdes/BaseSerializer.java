@@ -18,6 +18,11 @@ public abstract class BaseSerializer<T> implements Serializer<T> {
 
 	@Override
 	public byte[] serialize(String s, T o) {
+		// null stands for a delete in the stores and a tombstone in the topics
+		if (o == null) {
+			return null;
+		}
+
 		try {
 			return this.doDeserialize(s, o);
 		} catch (Exception e) {
@@ -0,0 +1,20 @@
+package com.github.overz.serdes;
+
+import com.github.overz.Mappers;
+import com.github.overz.dtos.ConsumerSet;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ConsumerSetDeserializer extends BaseDeserializer<ConsumerSet> {
+	// sets stored before the bitset are plain JSON arrays of consumer ids
+	private final HashSetDeserializer legacy = new HashSetDeserializer();
+
+	@Override
+	protected ConsumerSet doDeserialize(final String s, final byte[] o) throws Exception {
+		if (o.length > 0 && o[0] == '[') {
+			return ConsumerSet.ofLegacy(legacy.deserialize(s, o));
+		}
+
+		return Mappers.json().readValue(o, ConsumerSet.class);
+	}
+}
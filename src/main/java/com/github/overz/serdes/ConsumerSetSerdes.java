@@ -0,0 +1,23 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.ConsumerSet;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+public record ConsumerSetSerdes(
+	Serializer<ConsumerSet> serializer,
+	Deserializer<ConsumerSet> deserializer
+) implements Serde<ConsumerSet> {
+
+	public static ConsumerSetSerdes of(final SerdeFormat format) {
+		final var deserializer = new KryoDeserializer<>(ConsumerSet.class, new ConsumerSetDeserializer());
+		return switch (format) {
+			case JSON -> new ConsumerSetSerdes(new ConsumerSetSerializer(), deserializer);
+			case KRYO, KRYO_ZSTD -> new ConsumerSetSerdes(
+				new KryoSerializer<>(ConsumerSet.class, format.isCompressed()), deserializer
+			);
+			case RAW -> throw new IllegalArgumentException("RAW format is only supported for pages");
+		};
+	}
+}
@@ -0,0 +1,13 @@
+package com.github.overz.serdes;
+
+import com.github.overz.Mappers;
+import com.github.overz.dtos.ConsumerSet;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ConsumerSetSerializer extends BaseSerializer<ConsumerSet> {
+	@Override
+	protected byte[] doDeserialize(final String s, final ConsumerSet o) throws Exception {
+		return Mappers.json().writeValueAsBytes(o);
+	}
+}
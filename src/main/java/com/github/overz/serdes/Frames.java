@@ -0,0 +1,30 @@
+package com.github.overz.serdes;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// Binary values are laid out as [version][codec][payload]. JSON documents never start with VERSION, so the first
+// byte is enough to tell both apart while stores still hold values written before the binary formats existed.
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Frames {
+	// version 2 stores the summary total size as a long, frames of version 1 are still read
+	public static final byte VERSION = 2;
+	public static final byte VERSION_1 = 1;
+	public static final int HEADER_SIZE = 2;
+
+	public static final byte KRYO = 1;
+	public static final byte KRYO_ZSTD = 2;
+	public static final byte RAW = 3;
+
+	public static boolean isFramed(final byte[] data) {
+		return data != null && data.length >= HEADER_SIZE && (data[0] == VERSION || data[0] == VERSION_1);
+	}
+
+	public static byte version(final byte[] data) {
+		return data[0];
+	}
+
+	public static byte codec(final byte[] data) {
+		return data[1];
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.overz.serdes;
+
+import com.github.overz.serdes.kryo.KryoCodec;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Deserializer;
+
+@RequiredArgsConstructor
+public class KryoDeserializer<T> extends BaseDeserializer<T> {
+	private final Class<T> type;
+	// reads values written before the store switched to a binary format
+	private final Deserializer<T> fallback;
+
+	@Override
+	protected T doDeserialize(final String s, final byte[] o) throws Exception {
+		if (!Frames.isFramed(o)) {
+			return fallback.deserialize(s, o);
+		}
+
+		return KryoCodec.decode(type, o);
+	}
+}
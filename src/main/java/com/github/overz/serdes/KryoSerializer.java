@@ -0,0 +1,15 @@
+package com.github.overz.serdes;
+
+import com.github.overz.serdes.kryo.KryoCodec;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class KryoSerializer<T> extends BaseSerializer<T> {
+	private final Class<T> type;
+	private final boolean compressed;
+
+	@Override
+	protected byte[] doDeserialize(final String s, final T o) throws Exception {
+		return KryoCodec.encode(type, o, compressed);
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@RequiredArgsConstructor
+public class PageDataRawDeserializer extends BaseDeserializer<PageData> {
+	// reads pages written with any other format
+	private final Deserializer<PageData> fallback;
+
+	@Override
+	protected PageData doDeserialize(final String s, final byte[] o) throws Exception {
+		if (!Frames.isFramed(o) || Frames.codec(o) != Frames.RAW) {
+			return fallback.deserialize(s, o);
+		}
+
+		return decode(o);
+	}
+
+	public static PageData decode(final byte[] data) {
+		final var slice = PageSlice.wrap(data);
+		return new PageData(
+			copy(data, slice.keyOffset(), slice.keyLength()),
+			copy(data, slice.valueOffset(), slice.valueLength()),
+			metadata(data, slice.valueOffset() + Math.max(slice.valueLength(), 0))
+		);
+	}
+
+	private static PageMetadata metadata(final byte[] data, final int offset) {
+		if (offset >= data.length) {
+			return null;
+		}
+
+		final var buffer = ByteBuffer.wrap(data, offset, data.length - offset);
+		return new PageMetadata(
+			string(buffer),
+			string(buffer),
+			buffer.getInt(),
+			buffer.getLong(),
+			buffer.getInt(),
+			buffer.getInt(),
+			buffer.getInt()
+		);
+	}
+
+	private static String string(final ByteBuffer buffer) {
+		final var length = buffer.getInt();
+		final var value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		return value;
+	}
+
+	private static byte[] copy(final byte[] data, final int offset, final int length) {
+		return length == PageDataRawSerializer.NULL_LENGTH ? null : Arrays.copyOfRange(data, offset, offset + length);
+	}
+}
@@ -0,0 +1,73 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// [version][codec][key length][key][value length][value], a length of -1 stands for null. Pages stored with their
+// metadata are followed by [topic length][topic][message id length][message id][page number][offset][partition]
+// [key size][value size], frames ending after the value have no metadata.
+public class PageDataRawSerializer extends BaseSerializer<PageData> implements SerializedSize<PageData> {
+	static final int NULL_LENGTH = -1;
+
+	static final int METADATA_FIXED_SIZE = 6 * Integer.BYTES + Long.BYTES;
+
+	public static int sizeOf(final PageData page) {
+		return Frames.HEADER_SIZE + 2 * Integer.BYTES + length(page.key()) + length(page.value())
+			+ metadataSize(page.metadata());
+	}
+
+	@Override
+	public int serializedSize(final PageData value) {
+		return sizeOf(value);
+	}
+
+	@Override
+	protected byte[] doDeserialize(final String s, final PageData o) throws Exception {
+		final var buffer = ByteBuffer.allocate(sizeOf(o))
+			.put(Frames.VERSION)
+			.put(Frames.RAW);
+		put(buffer, o.key());
+		put(buffer, o.value());
+		putMetadata(buffer, o.metadata());
+		return buffer.array();
+	}
+
+	private static void putMetadata(final ByteBuffer buffer, final PageMetadata metadata) {
+		if (metadata == null) {
+			return;
+		}
+		put(buffer, utf8(metadata.topic()));
+		put(buffer, utf8(metadata.messageId()));
+		buffer.putInt(metadata.pageNumber())
+			.putLong(metadata.offset())
+			.putInt(metadata.partition())
+			.putInt(metadata.keySize())
+			.putInt(metadata.valueSize());
+	}
+
+	private static int metadataSize(final PageMetadata metadata) {
+		if (metadata == null) {
+			return 0;
+		}
+		return METADATA_FIXED_SIZE + utf8(metadata.topic()).length + utf8(metadata.messageId()).length;
+	}
+
+	private static byte[] utf8(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void put(final ByteBuffer buffer, final byte[] bytes) {
+		if (bytes == null) {
+			buffer.putInt(NULL_LENGTH);
+			return;
+		}
+		buffer.putInt(bytes.length).put(bytes);
+	}
+
+	private static int length(final byte[] bytes) {
+		return bytes != null ? bytes.length : 0;
+	}
+}
@@ -9,4 +9,15 @@ public record PageDataSerdes(
 	Serializer<PageData> serializer,
 	Deserializer<PageData> deserializer
 ) implements Serde<PageData> {
+
+	public static PageDataSerdes of(final SerdeFormat format) {
+		final var deserializer = new PageDataRawDeserializer(
+			new KryoDeserializer<>(PageData.class, new PageDataDeserializer())
+		);
+		return switch (format) {
+			case JSON -> new PageDataSerdes(new PageDataSerializer(), deserializer);
+			case KRYO, KRYO_ZSTD -> new PageDataSerdes(new KryoSerializer<>(PageData.class, format.isCompressed()), deserializer);
+			case RAW -> new PageDataSerdes(new PageDataRawSerializer(), deserializer);
+		};
+	}
 }
@@ -9,4 +9,15 @@ public record PageMetadataSerdes(
 	Serializer<PageMetadata> serializer,
 	Deserializer<PageMetadata> deserializer
 ) implements Serde<PageMetadata> {
+
+	public static PageMetadataSerdes of(final SerdeFormat format) {
+		final var deserializer = new KryoDeserializer<>(PageMetadata.class, new PageMetadataDeserializer());
+		return switch (format) {
+			case JSON -> new PageMetadataSerdes(new PageMetadataSerializer(), deserializer);
+			case KRYO, KRYO_ZSTD -> new PageMetadataSerdes(
+				new KryoSerializer<>(PageMetadata.class, format.isCompressed()), deserializer
+			);
+			case RAW -> throw new IllegalArgumentException("RAW format is only supported for pages");
+		};
+	}
 }
@@ -0,0 +1,47 @@
+package com.github.overz.serdes;
+
+import java.nio.ByteBuffer;
+
+// View over a RAW framed page, key and value are read straight from the backing array without copying it
+public record PageSlice(
+	byte[] data,
+	int keyOffset,
+	int keyLength,
+	int valueOffset,
+	int valueLength
+) {
+
+	public PageSlice {
+		if (data == null) {
+			throw new IllegalArgumentException("data cannot be null");
+		}
+		if (keyOffset < Frames.HEADER_SIZE || valueOffset < keyOffset) {
+			throw new IllegalArgumentException("offsets are out of the frame");
+		}
+	}
+
+	public static PageSlice wrap(final byte[] data) {
+		if (!Frames.isFramed(data) || Frames.codec(data) != Frames.RAW) {
+			throw new IllegalArgumentException("data is not a RAW framed page");
+		}
+
+		final var buffer = ByteBuffer.wrap(data);
+		final var keyOffset = Frames.HEADER_SIZE + Integer.BYTES;
+		final var keyLength = buffer.getInt(Frames.HEADER_SIZE);
+		final var valueOffset = keyOffset + Math.max(keyLength, 0) + Integer.BYTES;
+		final var valueLength = buffer.getInt(valueOffset - Integer.BYTES);
+		return new PageSlice(data, keyOffset, keyLength, valueOffset, valueLength);
+	}
+
+	public ByteBuffer key() {
+		return view(keyOffset, keyLength);
+	}
+
+	public ByteBuffer value() {
+		return view(valueOffset, valueLength);
+	}
+
+	private ByteBuffer view(final int offset, final int length) {
+		return length == PageDataRawSerializer.NULL_LENGTH ? null : ByteBuffer.wrap(data, offset, length).slice();
+	}
+}
@@ -9,4 +9,15 @@ public record PaginationSummarySerdes(
 	Serializer<PaginationSummary> serializer,
 	Deserializer<PaginationSummary> deserializer
 ) implements Serde<PaginationSummary> {
+
+	public static PaginationSummarySerdes of(final SerdeFormat format) {
+		final var deserializer = new KryoDeserializer<>(PaginationSummary.class, new PaginationSummaryDeserializer());
+		return switch (format) {
+			case JSON -> new PaginationSummarySerdes(new PaginationSummarySerializer(), deserializer);
+			case KRYO, KRYO_ZSTD -> new PaginationSummarySerdes(
+				new KryoSerializer<>(PaginationSummary.class, format.isCompressed()), deserializer
+			);
+			case RAW -> throw new IllegalArgumentException("RAW format is only supported for pages");
+		};
+	}
 }
@@ -0,0 +1,17 @@
+package com.github.overz.serdes;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum SerdeFormat {
+	JSON(false),
+	KRYO(false),
+	KRYO_ZSTD(true),
+	// length prefixed key and value, only meaningful for pages
+	RAW(false),
+	;
+
+	private final boolean compressed;
+}
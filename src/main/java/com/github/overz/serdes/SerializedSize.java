@@ -0,0 +1,22 @@
+package com.github.overz.serdes;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Implemented by serializers whose output size can be computed from the value without encoding it
+@FunctionalInterface
+public interface SerializedSize<T> {
+
+	int serializedSize(T value);
+
+	@SuppressWarnings("unchecked")
+	static <T> SerializedSize<T> of(final Serializer<T> serializer) {
+		if (serializer instanceof SerializedSize<?> sized) {
+			return (SerializedSize<T>) sized;
+		}
+
+		return value -> {
+			final var serialized = serializer.serialize(null, value);
+			return serialized != null ? serialized.length : 0;
+		};
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.overz.dtos.ConsumerSet;
+
+import java.util.HashSet;
+
+// starts with the StringSetKryoSerializer layout, so string sets stored before the bitset read as legacy ids
+public class ConsumerSetKryoSerializer extends Serializer<ConsumerSet> {
+
+	@Override
+	public void write(final Kryo kryo, final Output output, final ConsumerSet set) {
+		output.writeVarInt(set.legacy().size(), true);
+		for (final var consumerId : set.legacy()) {
+			output.writeString(consumerId);
+		}
+		output.writeVarInt(set.bits().length, true);
+		output.writeLongs(set.bits(), 0, set.bits().length);
+	}
+
+	@Override
+	public ConsumerSet read(final Kryo kryo, final Input input, final Class<? extends ConsumerSet> type) {
+		final var size = input.readVarInt(true);
+		final var legacy = HashSet.<String>newHashSet(size);
+		for (int i = 0; i < size; i++) {
+			legacy.add(input.readString());
+		}
+		final var bits = input.end() ? new long[0] : input.readLongs(input.readVarInt(true));
+		return new ConsumerSet(bits, legacy);
+	}
+}
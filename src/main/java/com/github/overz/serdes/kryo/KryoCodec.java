@@ -0,0 +1,124 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+import com.github.luben.zstd.Zstd;
+import com.github.overz.dtos.ConsumerSet;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.serdes.Frames;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KryoCodec {
+	private static final int POOL_SIZE = 64;
+	private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+	private static final int ZSTD_LEVEL = 3;
+	// frame version of the value being read, in the graph context, for serializers whose layout changed with it
+	static final String FRAME_VERSION = "frameVersion";
+
+	// Kryo instances and buffers are not thread safe, every stream thread borrows its own
+	private static final Pool<Kryo> KRYOS = new Pool<>(true, false, POOL_SIZE) {
+		@Override
+		protected Kryo create() {
+			return newKryo();
+		}
+	};
+
+	private static final Pool<Output> OUTPUTS = new Pool<>(true, true, POOL_SIZE) {
+		@Override
+		protected Output create() {
+			return new Output(INITIAL_BUFFER_SIZE, -1);
+		}
+	};
+
+	// ids are part of the stored format, never reuse or renumber them
+	private static Kryo newKryo() {
+		final var kryo = new Kryo();
+		kryo.setRegistrationRequired(true);
+		kryo.setReferences(false);
+		kryo.register(PageData.class, new PageDataKryoSerializer(), 100);
+		kryo.register(PageMetadata.class, new PageMetadataKryoSerializer(), 101);
+		kryo.register(PaginationSummary.class, new PaginationSummaryKryoSerializer(), 102);
+		// string sets are no longer written, the id stays reserved
+		kryo.register(HashSet.class, new StringSetKryoSerializer(), 103);
+		kryo.register(ConsumerSet.class, new ConsumerSetKryoSerializer(), 104);
+		return kryo;
+	}
+
+	public static <T> byte[] encode(final Class<T> type, final T value, final boolean compressed) {
+		final var kryo = KRYOS.obtain();
+		final var output = OUTPUTS.obtain();
+		try {
+			output.reset();
+			output.writeByte(Frames.VERSION);
+			output.writeByte(compressed ? Frames.KRYO_ZSTD : Frames.KRYO);
+			kryo.writeObject(output, value, kryo.getSerializer(type));
+
+			if (!compressed) {
+				return output.toBytes();
+			}
+
+			return compress(output.getBuffer(), output.position());
+		} finally {
+			OUTPUTS.free(output);
+			KRYOS.free(kryo);
+		}
+	}
+
+	public static <T> T decode(final Class<T> type, final byte[] data) {
+		final var codec = Frames.codec(data);
+		final var kryo = KRYOS.obtain();
+		try {
+			final var input = switch (codec) {
+				case Frames.KRYO -> new Input(data, Frames.HEADER_SIZE, data.length - Frames.HEADER_SIZE);
+				case Frames.KRYO_ZSTD -> new Input(decompress(data));
+				default -> throw new IllegalArgumentException("unsupported codec '" + codec + "'");
+			};
+
+			// the graph context is cleared once the object is read
+			kryo.getGraphContext().put(FRAME_VERSION, Frames.version(data));
+			return kryo.readObject(input, type, kryo.getSerializer(type));
+		} finally {
+			KRYOS.free(kryo);
+		}
+	}
+
+	// [version][codec][raw size][zstd frame], the frame header is kept uncompressed
+	private static byte[] compress(final byte[] buffer, final int length) {
+		final var rawSize = length - Frames.HEADER_SIZE;
+		final var bound = (int) Zstd.compressBound(rawSize);
+		final var dst = new byte[Frames.HEADER_SIZE + Integer.BYTES + bound];
+		dst[0] = buffer[0];
+		dst[1] = buffer[1];
+		ByteBuffer.wrap(dst, Frames.HEADER_SIZE, Integer.BYTES).putInt(rawSize);
+
+		final var offset = Frames.HEADER_SIZE + Integer.BYTES;
+		final var written = Zstd.compressByteArray(dst, offset, bound, buffer, Frames.HEADER_SIZE, rawSize, ZSTD_LEVEL);
+		if (Zstd.isError(written)) {
+			throw new IllegalStateException("zstd compression failed: " + Zstd.getErrorName(written));
+		}
+
+		return Arrays.copyOf(dst, offset + (int) written);
+	}
+
+	private static byte[] decompress(final byte[] data) {
+		final var rawSize = ByteBuffer.wrap(data, Frames.HEADER_SIZE, Integer.BYTES).getInt();
+		final var offset = Frames.HEADER_SIZE + Integer.BYTES;
+		final var dst = new byte[rawSize];
+		final var read = Zstd.decompressByteArray(dst, 0, rawSize, data, offset, data.length - offset);
+		if (Zstd.isError(read)) {
+			throw new IllegalStateException("zstd decompression failed: " + Zstd.getErrorName(read));
+		}
+
+		return dst;
+	}
+}
@@ -0,0 +1,45 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+
+public class PageDataKryoSerializer extends Serializer<PageData> {
+
+	@Override
+	public void write(final Kryo kryo, final Output output, final PageData page) {
+		writeBytes(output, page.key());
+		writeBytes(output, page.value());
+		output.writeBoolean(page.metadata() != null);
+		if (page.metadata() != null) {
+			kryo.writeObject(output, page.metadata());
+		}
+	}
+
+	@Override
+	public PageData read(final Kryo kryo, final Input input, final Class<? extends PageData> type) {
+		final var key = readBytes(input);
+		final var value = readBytes(input);
+		// pages written before the metadata could be stored with them end here
+		final var metadata = !input.end() && input.readBoolean() ? kryo.readObject(input, PageMetadata.class) : null;
+		return new PageData(key, value, metadata);
+	}
+
+	// length is shifted by one so that null and empty arrays stay distinguishable
+	static void writeBytes(final Output output, final byte[] bytes) {
+		if (bytes == null) {
+			output.writeVarInt(0, true);
+			return;
+		}
+		output.writeVarInt(bytes.length + 1, true);
+		output.writeBytes(bytes);
+	}
+
+	static byte[] readBytes(final Input input) {
+		final var length = input.readVarInt(true);
+		return length == 0 ? null : input.readBytes(length - 1);
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.overz.dtos.PageMetadata;
+
+public class PageMetadataKryoSerializer extends Serializer<PageMetadata> {
+
+	@Override
+	public void write(final Kryo kryo, final Output output, final PageMetadata metadata) {
+		output.writeString(metadata.topic());
+		output.writeString(metadata.messageId());
+		output.writeVarInt(metadata.pageNumber(), true);
+		output.writeVarLong(metadata.offset(), true);
+		output.writeVarInt(metadata.partition(), true);
+		output.writeVarInt(metadata.keySize(), true);
+		output.writeVarInt(metadata.valueSize(), true);
+	}
+
+	@Override
+	public PageMetadata read(final Kryo kryo, final Input input, final Class<? extends PageMetadata> type) {
+		return new PageMetadata(
+			input.readString(),
+			input.readString(),
+			input.readVarInt(true),
+			input.readVarLong(true),
+			input.readVarInt(true),
+			input.readVarInt(true),
+			input.readVarInt(true)
+		);
+	}
+}
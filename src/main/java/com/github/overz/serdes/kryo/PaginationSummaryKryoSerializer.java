@@ -0,0 +1,66 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import com.github.overz.serdes.Frames;
+
+import java.util.HashMap;
+import java.util.Objects;
+
+public class PaginationSummaryKryoSerializer extends Serializer<PaginationSummary> {
+	private static final PaginationStatus[] STATUSES = PaginationStatus.values();
+
+	@Override
+	public void write(final Kryo kryo, final Output output, final PaginationSummary summary) {
+		output.writeString(summary.paginationId());
+		// totals are -1 while the last page is unknown
+		output.writeVarInt(summary.totalPages(), false);
+		output.writeVarInt(summary.totalElements(), false);
+		output.writeVarLong(summary.totalSize(), true);
+		output.writeVarInt(summary.receivedPages(), true);
+		output.writeVarInt(summary.emittedPages(), true);
+		output.writeVarInt(summary.status().ordinal(), true);
+		output.writeVarInt(summary.pages().length, true);
+		output.writeLongs(summary.pages(), 0, summary.pages().length);
+		output.writeVarInt(summary.partialPages().size(), true);
+		for (final var entry : summary.partialPages().entrySet()) {
+			output.writeVarInt(entry.getKey(), true);
+			output.writeLong(entry.getValue());
+		}
+		output.writeVarLong(summary.openedAt(), true);
+	}
+
+	@Override
+	public PaginationSummary read(final Kryo kryo, final Input input, final Class<? extends PaginationSummary> type) {
+		final var paginationId = input.readString();
+		final var totalPages = input.readVarInt(false);
+		final var totalElements = input.readVarInt(false);
+		// an int until frame version 2
+		final var totalSize = isVersion1(kryo) ? input.readVarInt(true) : input.readVarLong(true);
+		final var receivedPages = input.readVarInt(true);
+		final var emittedPages = input.readVarInt(true);
+		final var status = STATUSES[input.readVarInt(true)];
+		final var pages = input.readLongs(input.readVarInt(true));
+		// summaries written before pages could be split end here
+		final var partialCount = input.end() ? 0 : input.readVarInt(true);
+		final var partialPages = new HashMap<Integer, Long>(partialCount);
+		for (int i = 0; i < partialCount; i++) {
+			partialPages.put(input.readVarInt(true), input.readLong());
+		}
+		// and before the first page time was kept
+		final var openedAt = input.end() ? 0 : input.readVarLong(true);
+
+		return new PaginationSummary(
+			paginationId, totalPages, totalElements, totalSize, receivedPages, emittedPages, status, pages, partialPages,
+			openedAt
+		);
+	}
+
+	private static boolean isVersion1(final Kryo kryo) {
+		return Objects.equals(kryo.getGraphContext().get(KryoCodec.FRAME_VERSION), Frames.VERSION_1);
+	}
+}
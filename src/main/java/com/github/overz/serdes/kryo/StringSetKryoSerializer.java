@@ -0,0 +1,31 @@
+package com.github.overz.serdes.kryo;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class StringSetKryoSerializer extends Serializer<Set> {
+
+	@Override
+	public void write(final Kryo kryo, final Output output, final Set set) {
+		output.writeVarInt(set.size(), true);
+		for (final var value : set) {
+			output.writeString((String) value);
+		}
+	}
+
+	@Override
+	public Set read(final Kryo kryo, final Input input, final Class<? extends Set> type) {
+		final var size = input.readVarInt(true);
+		final var set = HashSet.<String>newHashSet(size);
+		for (int i = 0; i < size; i++) {
+			set.add(input.readString());
+		}
+		return set;
+	}
+}
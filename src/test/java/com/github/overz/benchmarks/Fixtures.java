@@ -0,0 +1,97 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.HeaderCodec;
+import com.github.overz.HeaderKey;
+import com.github.overz.PaginationKeys;
+import com.github.overz.dtos.ExpiryPolicy;
+import com.github.overz.dtos.MessageHeaders;
+import com.github.overz.dtos.PageMetadata;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+// Pages and headers shaped like the ones producers send: JSON values, UUID pagination ids, string headers
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Fixtures {
+	static final String TOPIC = "benchmark-input";
+	static final ExpiryPolicy POLICY = new ExpiryPolicy(
+		Duration.ofHours(24), Duration.ofHours(72), Duration.ofHours(24), Duration.ofMinutes(1), 1000
+	);
+
+	private static final String ITEM = "{\"id\":%d,\"name\":\"item-%d\",\"price\":%d.99,\"tags\":[\"a\",\"b\"]},";
+
+	static String paginationId() {
+		return UUID.randomUUID().toString();
+	}
+
+	// a JSON array of items, compressible like real pages are
+	static byte[] value(final int size) {
+		final var builder = new StringBuilder(size + ITEM.length() * 2).append('[');
+		for (int i = 0; builder.length() < size - 1; i++) {
+			builder.append(ITEM.formatted(i, i, i % 1000));
+		}
+		builder.setLength(size - 1);
+		return builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	static MessageHeaders headers(final String paginationId, final int pageNumber, final int totalPages, final int valueSize) {
+		return MessageHeaders.builder()
+			.origin("benchmark")
+			.paginationId(paginationId)
+			.messageId(paginationId + "-" + pageNumber)
+			.compositeKey(PaginationKeys.composite(paginationId, pageNumber))
+			.topic(TOPIC)
+			.offset(pageNumber)
+			.partition(0)
+			.messageTime(Instant.now())
+			.totalElements(pageNumber == totalPages ? totalPages * 100 : 0)
+			.pageSize(100)
+			.pageNumber(pageNumber)
+			.keySize(paginationId.length())
+			.valueSize(valueSize)
+			.originalKeySize(paginationId.length())
+			.originalValueSize(valueSize)
+			.build();
+	}
+
+	static PageMetadata metadata(final MessageHeaders headers) {
+		return PageMetadata.fromHeaders(headers);
+	}
+
+	// what ExtractDataProcessor forwards
+	static RecordHeaders packed(final MessageHeaders headers) {
+		final var recordHeaders = new RecordHeaders();
+		recordHeaders.add(HeaderKey.PAGINATION, HeaderCodec.encode(headers));
+		return recordHeaders;
+	}
+
+	// what producers send, and what records enriched before the packed header carry
+	static RecordHeaders unpacked(final MessageHeaders headers) {
+		final var recordHeaders = new RecordHeaders();
+		add(recordHeaders, HeaderKey.ORIGIN, headers.origin());
+		add(recordHeaders, HeaderKey.PAGINATION_ID, headers.paginationId());
+		add(recordHeaders, HeaderKey.MESSAGE_ID, headers.messageId());
+		add(recordHeaders, HeaderKey.COMPOSITE_KEY, headers.compositeKey());
+		add(recordHeaders, HeaderKey.TOPIC, headers.topic());
+		add(recordHeaders, HeaderKey.OFFSET, Long.toString(headers.offset()));
+		add(recordHeaders, HeaderKey.PARTITION, Integer.toString(headers.partition()));
+		add(recordHeaders, HeaderKey.MESSAGE_TIME, Long.toString(headers.messageTime().toEpochMilli()));
+		add(recordHeaders, HeaderKey.TOTAL_ELEMENTS, Integer.toString(headers.totalElements()));
+		add(recordHeaders, HeaderKey.PAGE_SIZE, Integer.toString(headers.pageSize()));
+		add(recordHeaders, HeaderKey.PAGE_NUMBER, Integer.toString(headers.pageNumber()));
+		add(recordHeaders, HeaderKey.PAGE_KEY_SIZE, Integer.toString(headers.keySize()));
+		add(recordHeaders, HeaderKey.PAGE_VALUE_SIZE, Integer.toString(headers.valueSize()));
+		add(recordHeaders, HeaderKey.ORIGINAL_KEY_SIZE, Integer.toString(headers.originalKeySize()));
+		add(recordHeaders, HeaderKey.ORIGINAL_VALUE_SIZE, Integer.toString(headers.originalValueSize()));
+		return recordHeaders;
+	}
+
+	private static void add(final RecordHeaders headers, final String key, final String value) {
+		headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+	}
+}
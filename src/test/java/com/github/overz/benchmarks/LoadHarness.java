@@ -0,0 +1,254 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.StoreLayout;
+import com.github.overz.StoreProfile;
+import com.github.overz.StoreTier;
+import com.github.overz.StreamService;
+import com.github.overz.configs.PaginationRocksDBConfigSetter;
+import com.github.overz.deadletter.DeadLetterPublisher;
+import com.github.overz.dtos.OutputMode;
+import com.github.overz.dtos.Queue;
+import com.github.overz.metrics.PaginationMetrics;
+import com.github.overz.serdes.ConsumerSetSerdes;
+import com.github.overz.serdes.PageDataSerdes;
+import com.github.overz.serdes.PageMetadataSerdes;
+import com.github.overz.serdes.PaginationSummarySerdes;
+import com.github.overz.serdes.SerdeFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+// Drives the full StreamService topology through a TopologyTestDriver with generated traffic: every page, then a
+// registration for every pagination, then an ack for every completed one and a sweep. Reports the throughput of
+// each phase, the bytes every store holds per pagination and the bytes written to every changelog. The driver
+// commits after every record, so the CACHED tier absorbs nothing here and the changelog bytes are an upper bound.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//     -Dexec.mainClass=com.github.overz.benchmarks.LoadHarness \
+//     -Dexec.args="paginations=1000 minPages=1 maxPages=50 pageSize=4096 outOfOrder=0.1 duplicates=0.01 abandoned=0.05"
+public class LoadHarness {
+	private static final String INPUT = "load-input";
+	private static final String OUTPUT = "load-output";
+	private static final String CONSUMERS = "pagination-consumers";
+	private static final String ACKS = "pagination-ack";
+	private static final String NOTIFICATIONS = "pagination-notifications";
+	private static final String CONSUMER = "load-consumer";
+	private static final Duration COMMIT_INTERVAL = Duration.ofSeconds(1);
+
+	public static void main(final String[] args) throws IOException {
+		final var options = options(args);
+		final var shape = new PaginationGenerator.Shape(
+			integer(options, "paginations", 1000),
+			integer(options, "minPages", 1),
+			integer(options, "maxPages", 50),
+			integer(options, "pageSize", 4096),
+			integer(options, "concurrency", 16),
+			decimal(options, "outOfOrder", 0.1),
+			decimal(options, "duplicates", 0.01),
+			decimal(options, "abandoned", 0.05),
+			Long.parseLong(options.getOrDefault("seed", "42"))
+		);
+		final var mode = OutputMode.valueOf(options.getOrDefault("mode", OutputMode.SUMMARY.name()));
+		final var fused = Boolean.parseBoolean(options.getOrDefault("fused", "false"));
+		final var layout = StoreLayout.valueOf(options.getOrDefault("layout", StoreLayout.SEPARATE.name()));
+		final var format = SerdeFormat.valueOf(options.getOrDefault("format", SerdeFormat.KRYO.name()));
+
+		final var stateDir = Files.createTempDirectory("load-harness");
+		final var config = new Properties();
+		config.put(StreamsConfig.APPLICATION_ID_CONFIG, "load-harness");
+		config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+		config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+		config.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, PaginationRocksDBConfigSetter.class);
+		config.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, COMMIT_INTERVAL.toMillis());
+
+		final var pageSerdes = PageDataSerdes.of(format == SerdeFormat.JSON ? SerdeFormat.JSON : SerdeFormat.RAW);
+		final var metadataSerdes = PageMetadataSerdes.of(format);
+		final var summarySerdes = PaginationSummarySerdes.of(format);
+		final var consumerSetSerdes = ConsumerSetSerdes.of(format);
+		final var policy = Fixtures.POLICY;
+		final var deadLetters = new MockProducer<>(true, null, new ByteArraySerializer(), new ByteArraySerializer());
+
+		final var builder = new StreamsBuilder();
+		final var service = new StreamService(
+			CONSUMERS,
+			ACKS,
+			NOTIFICATIONS,
+			builder,
+			config,
+			List.of(Queue.builder()
+				.input(INPUT)
+				.output(OUTPUT)
+				.repartitions(1)
+				.fused(fused)
+				.outputMode(mode)
+				.build()),
+			pageSerdes,
+			metadataSerdes,
+			summarySerdes,
+			consumerSetSerdes,
+			policy,
+			new DeadLetterPublisher(deadLetters, "load-dead-letter"),
+			new StoreProfile(StoreTier.CACHED, StoreTier.CACHED, StoreTier.CACHED, layout),
+			900 * 1024,
+			100_000,
+			// only co-partitioned queues describe their input
+			null,
+			new PaginationMetrics(new SimpleMeterRegistry(), namespace -> null)
+		);
+		service.buildStream();
+
+		System.out.printf("%s, output %s, fused %s, layout %s, format %s%n", shape, mode, fused, layout, format);
+		try (final var driver = new TopologyTestDriver(builder.build(config), config)) {
+			final var input = driver.createInputTopic(INPUT, new ByteArraySerializer(), new ByteArraySerializer());
+			final var generator = new PaginationGenerator(shape);
+			var start = System.nanoTime();
+			while (generator.hasNext()) {
+				input.pipeInput(generator.next());
+			}
+			report("pages", generator.records(), start);
+			System.out.printf("  %d duplicates, %d of %d paginations complete%n",
+				generator.duplicates(), generator.completable().size(), generator.started().size());
+			storeBytes(driver, StreamService.StoreNames.of(null), pageSerdes, metadataSerdes, summarySerdes,
+				consumerSetSerdes, generator.started().size());
+
+			final var registrations = driver.createInputTopic(CONSUMERS, new StringSerializer(), new StringSerializer());
+			start = System.nanoTime();
+			for (final var paginationId : generator.started()) {
+				registrations.pipeInput(paginationId, CONSUMER);
+			}
+			report("registrations", generator.started().size(), start);
+			// notices go out with the first flush, a commit interval after the registrations
+			driver.advanceWallClockTime(COMMIT_INTERVAL);
+			final var notices = driver.createOutputTopic(NOTIFICATIONS, new StringDeserializer(), new StringDeserializer());
+			System.out.printf("  %d completion notices%n", notices.getQueueSize());
+
+			final var acks = driver.createInputTopic(ACKS, new StringSerializer(), new StringSerializer());
+			start = System.nanoTime();
+			for (final var paginationId : generator.completable()) {
+				acks.pipeInput(paginationId, CONSUMER);
+			}
+			// a sweep reclaims up to maxSweepSize paginations
+			for (int swept = 0; swept <= generator.completable().size(); swept += policy.maxSweepSize()) {
+				driver.advanceWallClockTime(policy.sweepInterval());
+			}
+			report("acks and sweep", generator.completable().size(), start);
+			System.out.println("  after cleanup, abandoned paginations are left to expire:");
+			storeBytes(driver, StreamService.StoreNames.of(null), pageSerdes, metadataSerdes, summarySerdes,
+				consumerSetSerdes, generator.started().size());
+
+			final var output = driver.createOutputTopic(OUTPUT, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+			System.out.printf("  %d output records, %d dead letters%n", output.getQueueSize(), deadLetters.history().size());
+			changelogBytes(driver, generator.started().size());
+		} finally {
+			pageSerdes.close();
+			metadataSerdes.close();
+			summarySerdes.close();
+			consumerSetSerdes.close();
+			Utils.delete(stateDir.toFile());
+		}
+	}
+
+	private static void report(final String phase, final int records, final long start) {
+		final var elapsed = System.nanoTime() - start;
+		System.out.printf("%s: %d records in %d ms, %.0f records/s%n",
+			phase, records, TimeUnit.NANOSECONDS.toMillis(elapsed), records * 1e9 / Math.max(elapsed, 1));
+	}
+
+	private static void storeBytes(
+		final TopologyTestDriver driver,
+		final StreamService.StoreNames stores,
+		final Serde<?> pageSerdes,
+		final Serde<?> metadataSerdes,
+		final Serde<?> summarySerdes,
+		final Serde<?> consumerSetSerdes,
+		final int paginations
+	) {
+		final var serdes = new TreeMap<String, Serde<?>>(Map.of(
+			stores.page(), pageSerdes,
+			stores.metadata(), metadataSerdes,
+			stores.summary(), summarySerdes,
+			stores.registration(), consumerSetSerdes,
+			stores.ack(), consumerSetSerdes,
+			stores.consumerIds(), Serdes.String(),
+			stores.expiry(), Serdes.String()
+		));
+		for (final var entry : serdes.entrySet()) {
+			final var bytes = storeBytes(driver.getKeyValueStore(entry.getKey()), entry.getKey(), entry.getValue());
+			System.out.printf("  %-40s %12d bytes, %10.1f per pagination%n", entry.getKey(), bytes, (double) bytes / paginations);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> long storeBytes(final KeyValueStore<String, V> store, final String name, final Serde<?> serde) {
+		final var serializer = ((Serde<V>) serde).serializer();
+		var bytes = 0L;
+		try (final var iterator = store.all()) {
+			while (iterator.hasNext()) {
+				final var entry = iterator.next();
+				bytes += entry.key.getBytes(StandardCharsets.UTF_8).length + serializer.serialize(name, entry.value).length;
+			}
+		}
+		return bytes;
+	}
+
+	private static void changelogBytes(final TopologyTestDriver driver, final int paginations) {
+		System.out.println("changelogs:");
+		for (final var topic : new TreeSet<>(driver.producedTopicNames())) {
+			if (!topic.endsWith("-changelog")) {
+				continue;
+			}
+
+			final var changelog = driver.createOutputTopic(topic, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+			var records = 0;
+			var bytes = 0L;
+			for (final var record : changelog.readRecordsToList()) {
+				records++;
+				bytes += (record.key() != null ? record.key().length : 0) + (record.value() != null ? record.value().length : 0);
+			}
+			System.out.printf("  %-60s %8d records %12d bytes, %10.1f per pagination%n",
+				topic, records, bytes, (double) bytes / paginations);
+		}
+	}
+
+	private static Map<String, String> options(final String[] args) {
+		final var options = new HashMap<String, String>();
+		for (final var arg : args) {
+			final var separator = arg.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("expected key=value, got '" + arg + "'");
+			}
+			options.put(arg.substring(0, separator), arg.substring(separator + 1));
+		}
+		return options;
+	}
+
+	private static int integer(final Map<String, String> options, final String key, final int defaultValue) {
+		return options.containsKey(key) ? Integer.parseInt(options.get(key)) : defaultValue;
+	}
+
+	private static double decimal(final Map<String, String> options, final String key, final double defaultValue) {
+		return options.containsKey(key) ? Double.parseDouble(options.get(key)) : defaultValue;
+	}
+}
@@ -0,0 +1,187 @@
+package com.github.overz.benchmarks;
+
+import com.github.overz.HeaderKey;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.streams.test.TestRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.UUID;
+
+// Synthetic producer traffic: paginations of random page counts sent by concurrent producers, with pages out of
+// order, redelivered or never sent at the configured rates. Every page shares the same value, only its size matters.
+public class PaginationGenerator implements Iterator<TestRecord<byte[], byte[]>> {
+	private static final int ELEMENTS_PER_PAGE = 100;
+	// how far ahead an out of order page is moved
+	private static final int REORDER_DISTANCE = 3;
+
+	private final Shape shape;
+	private final Random random;
+	private final byte[] value;
+	private final List<Pagination> active = new ArrayList<>();
+	private final List<String> started = new ArrayList<>();
+	private final List<String> completable = new ArrayList<>();
+	private int records;
+	private int duplicates;
+	private long timestamp;
+
+	public record Shape(
+		int paginations,
+		int minPages,
+		int maxPages,
+		int pageSize,
+		// paginations being sent at the same time, their pages are interleaved
+		int concurrency,
+		double outOfOrderRate,
+		double duplicateRate,
+		// paginations missing a page, they never complete and are left to expire
+		double abandonedRate,
+		long seed
+	) {
+
+		public Shape {
+			if (paginations <= 0 || concurrency <= 0) {
+				throw new IllegalArgumentException("paginations and concurrency must be greater than 0");
+			}
+			if (minPages <= 0 || maxPages < minPages) {
+				throw new IllegalArgumentException("pages must be greater than 0 and minPages at most maxPages");
+			}
+			if (pageSize <= 0) {
+				throw new IllegalArgumentException("pageSize must be greater than 0");
+			}
+			if (!isRate(outOfOrderRate) || !isRate(duplicateRate) || !isRate(abandonedRate)) {
+				throw new IllegalArgumentException("rates must be between 0 and 1");
+			}
+		}
+
+		private static boolean isRate(final double rate) {
+			return rate >= 0 && rate <= 1;
+		}
+	}
+
+	private static final class Pagination {
+		private final String id;
+		private final int totalPages;
+		private final int[] order;
+		private int next;
+
+		private Pagination(final String id, final int totalPages, final int[] order) {
+			this.id = id;
+			this.totalPages = totalPages;
+			this.order = order;
+		}
+	}
+
+	public PaginationGenerator(final Shape shape) {
+		this.shape = shape;
+		this.random = new Random(shape.seed());
+		this.value = Fixtures.value(shape.pageSize());
+		this.timestamp = System.currentTimeMillis();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return !active.isEmpty() || started.size() < shape.paginations();
+	}
+
+	@Override
+	public TestRecord<byte[], byte[]> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		while (active.size() < shape.concurrency() && started.size() < shape.paginations()) {
+			active.add(start());
+		}
+
+		final var index = random.nextInt(active.size());
+		final var pagination = active.get(index);
+		final int pageNumber;
+		if (pagination.next > 0 && random.nextDouble() < shape.duplicateRate()) {
+			pageNumber = pagination.order[random.nextInt(pagination.next)];
+			duplicates++;
+		} else {
+			pageNumber = pagination.order[pagination.next++];
+		}
+		if (pagination.next == pagination.order.length) {
+			active.set(index, active.getLast());
+			active.removeLast();
+		}
+
+		records++;
+		return new TestRecord<>(
+			pagination.id.getBytes(StandardCharsets.UTF_8),
+			value,
+			headers(pagination, pageNumber),
+			timestamp++
+		);
+	}
+
+	public List<String> started() {
+		return started;
+	}
+
+	// paginations sent with every page
+	public List<String> completable() {
+		return completable;
+	}
+
+	public int records() {
+		return records;
+	}
+
+	public int duplicates() {
+		return duplicates;
+	}
+
+	private Pagination start() {
+		final var id = new UUID(random.nextLong(), random.nextLong()).toString();
+		final var totalPages = shape.minPages() + random.nextInt(shape.maxPages() - shape.minPages() + 1);
+		var order = new int[totalPages];
+		for (int i = 0; i < totalPages; i++) {
+			order[i] = i + 1;
+		}
+		for (int i = 0; i < totalPages - 1; i++) {
+			if (random.nextDouble() < shape.outOfOrderRate()) {
+				final var j = Math.min(totalPages - 1, i + 1 + random.nextInt(REORDER_DISTANCE));
+				final var page = order[i];
+				order[i] = order[j];
+				order[j] = page;
+			}
+		}
+
+		// a single page pagination cannot miss a page and still be sent
+		if (totalPages > 1 && random.nextDouble() < shape.abandonedRate()) {
+			final var missing = random.nextInt(totalPages);
+			final var sent = new int[totalPages - 1];
+			System.arraycopy(order, 0, sent, 0, missing);
+			System.arraycopy(order, missing + 1, sent, missing, totalPages - 1 - missing);
+			order = sent;
+		} else {
+			completable.add(id);
+		}
+
+		started.add(id);
+		return new Pagination(id, totalPages, order);
+	}
+
+	private static RecordHeaders headers(final Pagination pagination, final int pageNumber) {
+		final var headers = new RecordHeaders();
+		add(headers, HeaderKey.ORIGIN, "load-harness");
+		add(headers, HeaderKey.PAGINATION_ID, pagination.id);
+		add(headers, HeaderKey.MESSAGE_ID, pagination.id + "-" + pageNumber);
+		add(headers, HeaderKey.PAGE_NUMBER, Integer.toString(pageNumber));
+		add(headers, HeaderKey.PAGE_SIZE, Integer.toString(ELEMENTS_PER_PAGE));
+		// producers only know the total with the last page
+		final var totalElements = pageNumber == pagination.totalPages ? pagination.totalPages * ELEMENTS_PER_PAGE : 0;
+		add(headers, HeaderKey.TOTAL_ELEMENTS, Integer.toString(totalElements));
+		return headers;
+	}
+
+	private static void add(final RecordHeaders headers, final String key, final String value) {
+		headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+	}
+}
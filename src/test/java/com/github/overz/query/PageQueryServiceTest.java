@@ -0,0 +1,206 @@
+package com.github.overz.query;
+
+import com.github.overz.PaginationKeys;
+import com.github.overz.StreamService;
+import com.github.overz.dtos.PageData;
+import com.github.overz.serdes.PageDataSerdes;
+import com.github.overz.serdes.SerdeFormat;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.processor.api.MockProcessorContext;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Two instances of the query service: "owner" holds the pages in its store and serves them over HTTP the way
+// PageQueryController does, "remote" does not have the partition and has to forward the request to the owner
+class PageQueryServiceTest {
+	private static final String QUEUE = "orders";
+	private static final String PAGINATION_ID = "p1";
+	private static final HostInfo REMOTE = new HostInfo("localhost", 1);
+
+	private final List<String> requests = new ArrayList<>();
+
+	private HttpServer server;
+	private HttpClient client;
+	private KafkaStreams ownerStreams;
+	private KafkaStreams remoteStreams;
+	private PageQueryService owner;
+	private PageQueryService remote;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/paginations/", this::handle);
+		server.start();
+		client = HttpClient.newHttpClient();
+
+		final var ownerHost = new HostInfo("localhost", server.getAddress().getPort());
+		final var storage = storage();
+		ownerStreams = streams(ownerHost, storage);
+		remoteStreams = streams(ownerHost, null);
+		owner = new PageQueryService(queue -> ownerStreams, ownerHost, client);
+		remote = new PageQueryService(queue -> remoteStreams, REMOTE, client);
+
+		// written out of order, next to a pagination whose id starts with the same characters
+		put(storage, PaginationKeys.composite(PAGINATION_ID, 10), "key-10", "page-10");
+		put(storage, PaginationKeys.composite(PAGINATION_ID, 1), "key-1", "page-1");
+		put(storage, PaginationKeys.part(PAGINATION_ID, 2, 1, 2), null, "-second");
+		put(storage, PaginationKeys.part(PAGINATION_ID, 2, 0, 2), "key-2", "page-2");
+		put(storage, PaginationKeys.composite(PAGINATION_ID + "0", 3), "key-3", "other");
+		put(storage, PaginationKeys.composite(PAGINATION_ID, 3), "key-3", "page-3");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+		client.close();
+	}
+
+	@Test
+	void fetchReadsThePagesOfAnotherInstanceInPageOrder() throws IOException {
+		final var pages = new ArrayList<Integer>();
+		final var values = new ArrayList<String>();
+
+		final var count = remote.fetch(QUEUE, PAGINATION_ID, (pageNumber, page) -> {
+			pages.add(pageNumber);
+			values.add(new String(page.value(), StandardCharsets.UTF_8));
+		});
+
+		assertThat(count).isEqualTo(4);
+		assertThat(pages).containsExactly(1, 2, 3, 10);
+		assertThat(values).containsExactly("page-1", "page-2-second", "page-3", "page-10");
+		assertThat(requests).containsExactly("/paginations/p1/pages?local=true&queue=orders");
+		verify(remoteStreams, never()).store(any());
+	}
+
+	@Test
+	void streamForwardsTheResponseOfTheOwner() throws IOException {
+		final var output = new ByteArrayOutputStream();
+		remote.stream(QUEUE, PAGINATION_ID, false, output);
+
+		final var pages = new ArrayList<Integer>();
+		final var keys = new ArrayList<String>();
+		final var count = PageStream.read(new ByteArrayInputStream(output.toByteArray()), (pageNumber, page) -> {
+			pages.add(pageNumber);
+			keys.add(new String(page.key(), StandardCharsets.UTF_8));
+		});
+
+		assertThat(count).isEqualTo(4);
+		assertThat(pages).containsExactly(1, 2, 3, 10);
+		assertThat(keys).containsExactly("key-1", "key-2", "key-3", "key-10");
+		assertThat(requests).hasSize(1);
+	}
+
+	@Test
+	void fetchReadsLocalPagesWithoutARequest() throws IOException {
+		final var pages = new ArrayList<Integer>();
+
+		owner.fetch(QUEUE, PAGINATION_ID, (pageNumber, page) -> pages.add(pageNumber));
+
+		assertThat(pages).containsExactly(1, 2, 3, 10);
+		assertThat(requests).isEmpty();
+	}
+
+	@Test
+	void fetchFailsWhenTheOwnerRejectsTheRequest() {
+		assertThatThrownBy(() -> remote.fetch("missing", PAGINATION_ID, (pageNumber, page) -> {
+		}))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("failed with 500");
+	}
+
+	// stands in for PageQueryController on the owner
+	private void handle(final HttpExchange exchange) throws IOException {
+		final var uri = exchange.getRequestURI();
+		requests.add(uri.getRawPath() + "?" + uri.getRawQuery());
+
+		final var path = uri.getPath();
+		final var paginationId = path.substring("/paginations/".length(), path.lastIndexOf("/pages"));
+		final var query = query(uri.getRawQuery());
+		try (exchange) {
+			if (!QUEUE.equals(query.get("queue"))) {
+				exchange.sendResponseHeaders(500, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, 0);
+			owner.stream(query.get("queue"), paginationId, Boolean.parseBoolean(query.get("local")), exchange.getResponseBody());
+		}
+	}
+
+	private static Map<String, String> query(final String rawQuery) {
+		final var params = new HashMap<String, String>();
+		for (final var param : rawQuery.split("&")) {
+			final var separator = param.indexOf('=');
+			params.put(
+				URLDecoder.decode(param.substring(0, separator), StandardCharsets.UTF_8),
+				URLDecoder.decode(param.substring(separator + 1), StandardCharsets.UTF_8)
+			);
+		}
+		return params;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static KafkaStreams streams(final HostInfo activeHost, final ReadOnlyKeyValueStore<String, PageData> storage) {
+		final var streams = mock(KafkaStreams.class);
+		when(streams.queryMetadataForKey(anyString(), anyString(), any(Serializer.class)))
+			.thenReturn(new KeyQueryMetadata(activeHost, Set.of(), 0));
+		when(streams.store(any(StoreQueryParameters.class))).thenReturn(storage);
+		return streams;
+	}
+
+	private static KeyValueStore<String, PageData> storage() {
+		final KeyValueStore<String, PageData> storage = Stores.keyValueStoreBuilder(
+				Stores.inMemoryKeyValueStore(StreamService.StoreNames.of(QUEUE).page()),
+				Serdes.String(),
+				PageDataSerdes.of(SerdeFormat.RAW)
+			)
+			.withLoggingDisabled()
+			.build();
+		storage.init(new MockProcessorContext<>().getStateStoreContext(), storage);
+		return storage;
+	}
+
+	private static void put(
+		final KeyValueStore<String, PageData> storage,
+		final String key,
+		final String pageKey,
+		final String value
+	) {
+		storage.put(key, new PageData(
+			pageKey != null ? pageKey.getBytes(StandardCharsets.UTF_8) : null,
+			value.getBytes(StandardCharsets.UTF_8)
+		));
+	}
+}
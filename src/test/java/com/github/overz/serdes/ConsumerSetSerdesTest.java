@@ -0,0 +1,97 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.ConsumerSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.overz.serdes.TestFrames.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsumerSetSerdesTest {
+	private static final List<ConsumerSet> SETS = List.of(
+		ConsumerSet.empty(),
+		ConsumerSet.empty().with(0).with(3).with(64),
+		ConsumerSet.ofLegacy(Set.of("c1", "c2")).with(1)
+	);
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void roundTrip(final SerdeFormat format) {
+		final var serdes = ConsumerSetSerdes.of(format);
+
+		for (final var set : SETS) {
+			final var bytes = serdes.serializer().serialize(TOPIC, set);
+
+			assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).usingRecursiveComparison().isEqualTo(set);
+			if (format != SerdeFormat.JSON) {
+				assertThat(Frames.version(bytes)).isEqualTo(Frames.VERSION);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void readsEveryFormat(final SerdeFormat format) {
+		for (final var set : SETS) {
+			final var bytes = ConsumerSetSerdes.of(format).serializer().serialize(TOPIC, set);
+
+			for (final var reader : List.of(SerdeFormat.JSON, SerdeFormat.KRYO, SerdeFormat.KRYO_ZSTD)) {
+				assertThat(ConsumerSetSerdes.of(reader).deserializer().deserialize(TOPIC, bytes))
+					.usingRecursiveComparison()
+					.isEqualTo(set);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsVersion1Frames(final SerdeFormat format) {
+		final var serdes = ConsumerSetSerdes.of(format);
+
+		for (final var set : SETS) {
+			final var bytes = TestFrames.asVersion1(serdes.serializer().serialize(TOPIC, set));
+
+			assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).usingRecursiveComparison().isEqualTo(set);
+		}
+	}
+
+	// string sets were written with the StringSetKryoSerializer layout, before the bitset
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsLegacyStringSets(final SerdeFormat format) {
+		final var bytes = TestFrames.frame(Frames.VERSION_1, TestFrames.codec(format), output -> {
+			output.writeVarInt(2, true);
+			output.writeString("c1");
+			output.writeString("c2");
+		});
+
+		final var set = deserialize(bytes);
+
+		assertThat(set.legacy()).containsExactlyInAnyOrder("c1", "c2");
+		assertThat(set.bits()).isEmpty();
+	}
+
+	@Test
+	void readsLegacyJsonLists() {
+		final var set = deserialize("[\"c1\",\"c2\"]".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(set.legacy()).containsExactlyInAnyOrder("c1", "c2");
+		assertThat(set.bits()).isEmpty();
+	}
+
+	@Test
+	void rejectsRaw() {
+		assertThatThrownBy(() -> ConsumerSetSerdes.of(SerdeFormat.RAW))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static ConsumerSet deserialize(final byte[] bytes) {
+		return ConsumerSetSerdes.of(SerdeFormat.KRYO).deserializer().deserialize(TOPIC, bytes);
+	}
+}
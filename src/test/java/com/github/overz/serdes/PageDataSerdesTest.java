@@ -0,0 +1,98 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.PageData;
+import com.github.overz.dtos.PageMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.github.overz.serdes.TestFrames.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageDataSerdesTest {
+	private static final PageMetadata METADATA = new PageMetadata("input", "m1", 1, 42L, 3, 3, 5);
+	private static final PageData PAGE = new PageData(utf8("key"), utf8("value"));
+	private static final List<PageData> PAGES = List.of(
+		PAGE,
+		PAGE.withMetadata(METADATA),
+		// the parts after the first one of a split page have no key
+		new PageData(null, utf8("value")),
+		new PageData(new byte[0], null)
+	);
+
+	@ParameterizedTest
+	@EnumSource(SerdeFormat.class)
+	void roundTrip(final SerdeFormat format) {
+		final var serdes = PageDataSerdes.of(format);
+
+		for (final var page : PAGES) {
+			final var bytes = serdes.serializer().serialize(TOPIC, page);
+
+			assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).usingRecursiveComparison().isEqualTo(page);
+			if (format != SerdeFormat.JSON) {
+				assertThat(Frames.version(bytes)).isEqualTo(Frames.VERSION);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(SerdeFormat.class)
+	void readsEveryFormat(final SerdeFormat format) {
+		for (final var page : PAGES) {
+			final var bytes = PageDataSerdes.of(format).serializer().serialize(TOPIC, page);
+
+			for (final var reader : SerdeFormat.values()) {
+				assertThat(PageDataSerdes.of(reader).deserializer().deserialize(TOPIC, bytes))
+					.usingRecursiveComparison()
+					.isEqualTo(page);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD", "RAW"})
+	void readsVersion1Frames(final SerdeFormat format) {
+		final var serdes = PageDataSerdes.of(format);
+
+		for (final var page : PAGES) {
+			final var bytes = TestFrames.asVersion1(serdes.serializer().serialize(TOPIC, page));
+
+			assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).usingRecursiveComparison().isEqualTo(page);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsFramesWrittenBeforeTheMetadata(final SerdeFormat format) {
+		final var bytes = TestFrames.frame(Frames.VERSION_1, TestFrames.codec(format), output -> {
+			output.writeVarInt(4, true);
+			output.writeBytes(utf8("key"));
+			output.writeVarInt(6, true);
+			output.writeBytes(utf8("value"));
+		});
+
+		final var page = deserialize(bytes);
+
+		assertThat(page).usingRecursiveComparison().isEqualTo(PAGE);
+	}
+
+	@Test
+	void readsUnframedJson() {
+		final var json = "{\"key\":\"a2V5\",\"value\":\"dmFsdWU=\"}";
+
+		final var page = deserialize(json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(page).usingRecursiveComparison().isEqualTo(PAGE);
+	}
+
+	private static PageData deserialize(final byte[] bytes) {
+		return PageDataSerdes.of(SerdeFormat.RAW).deserializer().deserialize(TOPIC, bytes);
+	}
+
+	private static byte[] utf8(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
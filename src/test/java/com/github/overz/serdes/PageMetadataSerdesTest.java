@@ -0,0 +1,56 @@
+package com.github.overz.serdes;
+
+import com.github.overz.dtos.PageMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+
+import static com.github.overz.serdes.TestFrames.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageMetadataSerdesTest {
+	private static final PageMetadata METADATA = new PageMetadata("input", "m1", 7, 5_000_000_000L, 3, 36, 1024);
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void roundTrip(final SerdeFormat format) {
+		final var serdes = PageMetadataSerdes.of(format);
+
+		final var bytes = serdes.serializer().serialize(TOPIC, METADATA);
+
+		assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).isEqualTo(METADATA);
+		if (format != SerdeFormat.JSON) {
+			assertThat(Frames.version(bytes)).isEqualTo(Frames.VERSION);
+			assertThat(Frames.codec(bytes)).isEqualTo(TestFrames.codec(format));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void readsEveryFormat(final SerdeFormat format) {
+		final var bytes = PageMetadataSerdes.of(format).serializer().serialize(TOPIC, METADATA);
+
+		for (final var reader : List.of(SerdeFormat.JSON, SerdeFormat.KRYO, SerdeFormat.KRYO_ZSTD)) {
+			assertThat(PageMetadataSerdes.of(reader).deserializer().deserialize(TOPIC, bytes)).isEqualTo(METADATA);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsVersion1Frames(final SerdeFormat format) {
+		final var serdes = PageMetadataSerdes.of(format);
+
+		final var bytes = TestFrames.asVersion1(serdes.serializer().serialize(TOPIC, METADATA));
+
+		assertThat(serdes.deserializer().deserialize(TOPIC, bytes)).isEqualTo(METADATA);
+	}
+
+	@Test
+	void rejectsRaw() {
+		assertThatThrownBy(() -> PageMetadataSerdes.of(SerdeFormat.RAW))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.overz.serdes;
+
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.overz.dtos.PaginationStatus;
+import com.github.overz.dtos.PaginationSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.overz.serdes.TestFrames.TOPIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginationSummarySerdesTest {
+	private static final PaginationSummary SUMMARY = new PaginationSummary(
+		"p1", 3, 300, 5_000_000_000L, 2, 1, PaginationStatus.OPEN, new long[]{0b110}, Map.of(3, 0b1L), 1_700_000_000_000L
+	);
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void roundTrip(final SerdeFormat format) {
+		final var serdes = PaginationSummarySerdes.of(format);
+
+		final var bytes = serdes.serializer().serialize(TOPIC, SUMMARY);
+		final var summary = serdes.deserializer().deserialize(TOPIC, bytes);
+
+		assertThat(summary).usingRecursiveComparison().isEqualTo(SUMMARY);
+		if (format != SerdeFormat.JSON) {
+			assertThat(Frames.version(bytes)).isEqualTo(Frames.VERSION);
+			assertThat(Frames.codec(bytes)).isEqualTo(TestFrames.codec(format));
+		}
+	}
+
+	// any of the serdes reads what the others wrote, the store format can change without a migration
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"JSON", "KRYO", "KRYO_ZSTD"})
+	void readsEveryFormat(final SerdeFormat format) {
+		final var bytes = PaginationSummarySerdes.of(format).serializer().serialize(TOPIC, SUMMARY);
+
+		for (final var reader : List.of(SerdeFormat.JSON, SerdeFormat.KRYO, SerdeFormat.KRYO_ZSTD)) {
+			assertThat(PaginationSummarySerdes.of(reader).deserializer().deserialize(TOPIC, bytes))
+				.usingRecursiveComparison()
+				.isEqualTo(SUMMARY);
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsVersion1Frames(final SerdeFormat format) {
+		final var bytes = TestFrames.frame(Frames.VERSION_1, TestFrames.codec(format), output -> {
+			version1Fields(output);
+			output.writeVarInt(1, true);
+			output.writeVarInt(3, true);
+			output.writeLong(0b1L);
+			output.writeVarLong(1_700_000_000_000L, true);
+		});
+
+		final var summary = deserialize(bytes);
+
+		assertThat(summary).usingRecursiveComparison().isEqualTo(SUMMARY.withTotalSize(1234));
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SerdeFormat.class, names = {"KRYO", "KRYO_ZSTD"})
+	void readsVersion1FramesWrittenBeforeSplitPages(final SerdeFormat format) {
+		final var bytes = TestFrames.frame(Frames.VERSION_1, TestFrames.codec(format), this::version1Fields);
+
+		final var summary = deserialize(bytes);
+
+		assertThat(summary.totalSize()).isEqualTo(1234);
+		assertThat(summary.pages()).containsExactly(0b110);
+		assertThat(summary.partialPages()).isEmpty();
+		assertThat(summary.openedAt()).isZero();
+	}
+
+	@Test
+	void readsLegacyReferences() {
+		final var json = """
+			{"totalPages":2,"totalElements":200,"totalSize":10,"status":"COMPLETED",
+			"references":["p1@0000000001","p1@0000000002"]}""";
+
+		final var summary = deserialize(json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(summary.paginationId()).isEqualTo("p1");
+		assertThat(summary.receivedPages()).isEqualTo(2);
+		assertThat(summary.totalSize()).isEqualTo(10);
+		assertThat(summary.status()).isEqualTo(PaginationStatus.COMPLETED);
+		assertThat(summary.pages()).containsExactly(0b110);
+		assertThat(summary.references()).containsExactly("p1@0000000001", "p1@0000000002");
+	}
+
+	// keys written before the page number layout end with the message id, those pages are counted but not addressed
+	@Test
+	void readsLegacyReferencesWithoutPageNumbers() {
+		final var json = """
+			{"totalPages":-1,"totalElements":-1,"totalSize":10,"status":"OPEN","references":["p1@m1","p1@m2"]}""";
+
+		final var summary = deserialize(json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(summary.paginationId()).isEqualTo("p1");
+		assertThat(summary.receivedPages()).isEqualTo(2);
+		assertThat(summary.pages()).isEmpty();
+	}
+
+	@Test
+	void rejectsRaw() {
+		assertThatThrownBy(() -> PaginationSummarySerdes.of(SerdeFormat.RAW))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	// the summary layout up to the pages, with the total size still an int
+	private void version1Fields(final Output output) {
+		output.writeString("p1");
+		output.writeVarInt(3, false);
+		output.writeVarInt(300, false);
+		output.writeVarInt(1234, true);
+		output.writeVarInt(2, true);
+		output.writeVarInt(1, true);
+		output.writeVarInt(PaginationStatus.OPEN.ordinal(), true);
+		output.writeVarInt(1, true);
+		output.writeLong(0b110);
+	}
+
+	private static PaginationSummary deserialize(final byte[] bytes) {
+		return PaginationSummarySerdes.of(SerdeFormat.KRYO).deserializer().deserialize(TOPIC, bytes);
+	}
+}
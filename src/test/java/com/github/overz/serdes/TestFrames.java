@@ -0,0 +1,50 @@
+package com.github.overz.serdes;
+
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.github.luben.zstd.Zstd;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Builds frames by hand the way older versions of the serializers wrote them
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class TestFrames {
+	static final String TOPIC = "serdes-test";
+
+	static byte[] frame(final byte version, final byte codec, final Consumer<Output> body) {
+		final var output = new Output(256, -1);
+		body.accept(output);
+		final var payload = output.toBytes();
+		if (codec != Frames.KRYO_ZSTD) {
+			return header(version, codec, payload, 0);
+		}
+
+		// [version][codec][raw size][zstd frame]
+		final var compressed = Zstd.compress(payload);
+		final var frame = header(version, codec, compressed, Integer.BYTES);
+		ByteBuffer.wrap(frame, Frames.HEADER_SIZE, Integer.BYTES).putInt(payload.length);
+		return frame;
+	}
+
+	// the layout of every value but the summary is the same in frame versions 1 and 2
+	static byte[] asVersion1(final byte[] frame) {
+		final var copy = Arrays.copyOf(frame, frame.length);
+		copy[0] = Frames.VERSION_1;
+		return copy;
+	}
+
+	static byte codec(final SerdeFormat format) {
+		return format.isCompressed() ? Frames.KRYO_ZSTD : Frames.KRYO;
+	}
+
+	private static byte[] header(final byte version, final byte codec, final byte[] payload, final int gap) {
+		final var frame = new byte[Frames.HEADER_SIZE + gap + payload.length];
+		frame[0] = version;
+		frame[1] = codec;
+		System.arraycopy(payload, 0, frame, Frames.HEADER_SIZE + gap, payload.length);
+		return frame;
+	}
+}